@@ -11,7 +11,7 @@ export type DonationResponse = {
   id: string;
   amountCents: number;
   currency: string;
-  status: 'CREATED' | 'PENDING' | 'PAID' | 'FAILED';
+  status: 'CREATED' | 'PENDING' | 'PAID' | 'FAILED' | 'CANCELED' | 'REFUNDED';
   createdAt: string;
 };
 
@@ -0,0 +1,19 @@
+package com.yassine.donationplatform.loadharness;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Lecture minimale de champs texte plats dans les réponses de l'API (pas de dépendance JSON). */
+final class Json {
+
+    private Json() {}
+
+    static String field(String json, String name) {
+        Matcher m = Pattern.compile("\"" + Pattern.quote(name) + "\"\\s*:\\s*\"([^\"]*)\"").matcher(json);
+        return m.find() ? m.group(1) : null;
+    }
+
+    static String escape(String s) {
+        return s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
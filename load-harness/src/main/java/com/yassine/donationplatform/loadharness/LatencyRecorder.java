@@ -0,0 +1,63 @@
+package com.yassine.donationplatform.loadharness;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences par étape (nanosecondes), remises à zéro entre deux paliers de charge.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> stages = new ConcurrentHashMap<>();
+
+    void record(String stage, long nanos) {
+        stages.computeIfAbsent(stage, s -> new Samples()).add(nanos);
+    }
+
+    void error(String stage) {
+        stages.computeIfAbsent(stage, s -> new Samples()).errors.increment();
+    }
+
+    void reset() {
+        stages.clear();
+    }
+
+    Map<String, Summary> snapshot() {
+        Map<String, Summary> out = new java.util.TreeMap<>();
+        stages.forEach((name, s) -> out.put(name, s.summary()));
+        return out;
+    }
+
+    record Summary(int count, long errors, double p50Ms, double p99Ms, double maxMs) {}
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        synchronized Summary summary() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Summary(size, errors.sum(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    size == 0 ? 0 : toMs(sorted[size - 1]));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int idx = (int) Math.ceil(p * sorted.length) - 1;
+            return toMs(sorted[Math.max(0, Math.min(idx, sorted.length - 1))]);
+        }
+
+        private static double toMs(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
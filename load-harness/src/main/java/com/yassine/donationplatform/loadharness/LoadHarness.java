@@ -0,0 +1,90 @@
+package com.yassine.donationplatform.loadharness;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Point d'entrée : démarre le stub Stripe et le puits SMTP, puis monte la charge palier par palier
+ * contre une instance locale lancée avec le profil {@code loadtest}.
+ * <p>
+ * Options (--clé=valeur) : app, stages, stage-seconds, stripe-port, smtp-port, webhook-secret,
+ * webhook-delay-ms, stripe-latency-ms, poll-ms, receipts, mode, slo-p99-ms, stubs-only.
+ * <p>
+ * En fin de course : débit du palier le plus chargé qui tient le SLO (aucune erreur, p99 du checkout
+ * sous slo-p99-ms), pour comparer threads plateforme et threads virtuels à configuration égale.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+
+        String app = opts.getOrDefault("app", "http://localhost:8080");
+        int stripePort = Integer.parseInt(opts.getOrDefault("stripe-port", "12111"));
+        int smtpPort = Integer.parseInt(opts.getOrDefault("smtp-port", "2525"));
+        String webhookSecret = opts.getOrDefault("webhook-secret", "whsec_loadtest");
+        long webhookDelayMs = Long.parseLong(opts.getOrDefault("webhook-delay-ms", "200"));
+        long stripeLatencyMs = Long.parseLong(opts.getOrDefault("stripe-latency-ms", "0"));
+        boolean checkoutOnly = "checkout".equals(opts.getOrDefault("mode", "flow"));
+        double sloP99Ms = Double.parseDouble(opts.getOrDefault("slo-p99-ms", "1000"));
+        long pollMs = Long.parseLong(opts.getOrDefault("poll-ms", "100"));
+        boolean receipts = Boolean.parseBoolean(opts.getOrDefault("receipts", "true"));
+        Duration stageDuration = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("stage-seconds", "30")));
+        String[] stages = opts.getOrDefault("stages", "1,5,10,25").split(",");
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        StripeStub stripe = new StripeStub(stripePort, app, webhookSecret, webhookDelayMs, stripeLatencyMs, recorder);
+        SmtpSink smtp = new SmtpSink(smtpPort);
+        stripe.start();
+        smtp.start();
+        System.out.printf("Stripe stub on :%d (webhooks -> %s), SMTP sink on :%d%n", stripePort, app, smtpPort);
+
+        if (Boolean.parseBoolean(opts.getOrDefault("stubs-only", "false"))) {
+            System.out.println("stubs-only: Ctrl+C to stop");
+            Thread.currentThread().join();
+        }
+
+        ScenarioDriver driver = new ScenarioDriver(app, pollMs, receipts, checkoutOnly, recorder);
+        double bestRate = 0;
+        int bestDonors = 0;
+        try {
+            for (String stage : stages) {
+                int donors = Integer.parseInt(stage.trim());
+                recorder.reset();
+                long emailsBefore = smtp.messages();
+
+                long completed = driver.runStage(donors, stageDuration);
+
+                Thread.sleep(webhookDelayMs + 500); // derniers webhooks en vol
+                Map<String, LatencyRecorder.Summary> summary = recorder.snapshot();
+                double rate = ScenarioDriver.printReport(donors, stageDuration, completed, summary,
+                        smtp.messages() - emailsBefore);
+
+                boolean withinSlo = summary.values().stream().allMatch(s -> s.errors() == 0)
+                        && summary.containsKey("1.checkout") && summary.get("1.checkout").p99Ms() <= sloP99Ms;
+                if (withinSlo && rate > bestRate) {
+                    bestRate = rate;
+                    bestDonors = donors;
+                }
+            }
+            System.out.printf("%nmax sustainable: %.1f flows/s (%d donors, checkout p99 <= %.0f ms, no errors)%n",
+                    bestRate, bestDonors, sloP99Ms);
+        } finally {
+            stripe.stop();
+            smtp.stop();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> out = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) out.put(a.substring(2), "true");
+            else out.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,150 @@
+package com.yassine.donationplatform.loadharness;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Donateurs concurrents (un thread virtuel chacun) qui enchaînent en boucle, pendant la durée du palier :
+ * checkout -> attente du statut PAID (webhook du stub) -> demande de reçu (PDF + email vers le puits).
+ * En mode {@code checkoutOnly}, seule la création de session est bouclée.
+ */
+final class ScenarioDriver {
+
+    private static final Duration PAID_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String appBase;
+    private final long pollIntervalMs;
+    private final boolean requestReceipts;
+    private final boolean checkoutOnly;
+    private final LatencyRecorder recorder;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    ScenarioDriver(String appBase, long pollIntervalMs, boolean requestReceipts, boolean checkoutOnly,
+                   LatencyRecorder recorder) {
+        this.appBase = appBase;
+        this.pollIntervalMs = pollIntervalMs;
+        this.requestReceipts = requestReceipts;
+        this.checkoutOnly = checkoutOnly;
+        this.recorder = recorder;
+    }
+
+    /** Retourne le nombre de parcours complets pendant le palier. */
+    long runStage(int donors, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong completed = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>(donors);
+        for (int i = 0; i < donors; i++) {
+            int donor = i;
+            threads.add(Thread.ofVirtual().name("donor-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (donorFlow(donor)) completed.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread t : threads) t.join();
+        return completed.get();
+    }
+
+    private boolean donorFlow(int donor) {
+        long flowStart = System.nanoTime();
+        String email = "donor" + donor + "-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@loadtest.local";
+
+        // 1) création de session
+        long t = System.nanoTime();
+        String body = """
+                {"amount":%d,"email":"%s","paymentMethod":"CARD"}""".formatted(5 + ThreadLocalRandom.current().nextInt(200), email);
+        HttpResponse<String> res = send("POST", "/api/donations/checkout-session", body);
+        String donationId = res == null || res.statusCode() != 200 ? null : Json.field(res.body(), "donationId");
+        if (donationId == null) {
+            recorder.error("1.checkout");
+            return false;
+        }
+        recorder.record("1.checkout", System.nanoTime() - t);
+        if (checkoutOnly) {
+            return true;
+        }
+
+        // 2) webhook traité : la donation devient PAID
+        t = System.nanoTime();
+        if (!awaitPaid(donationId)) {
+            recorder.error("2.paid");
+            return false;
+        }
+        recorder.record("2.paid", System.nanoTime() - t);
+
+        // 3) reçu fiscal : PDF + email synchrones
+        if (requestReceipts) {
+            t = System.nanoTime();
+            String receipt = """
+                    {"donationId":"%s","email":"%s","fullName":"Load Test %d","address":"1 rue du Test, 75000 Paris"}"""
+                    .formatted(donationId, email, donor);
+            res = send("POST", "/api/receipts/request", receipt);
+            if (res == null || res.statusCode() != 200) {
+                recorder.error("3.receipt");
+                return false;
+            }
+            recorder.record("3.receipt", System.nanoTime() - t);
+        }
+
+        recorder.record("4.total", System.nanoTime() - flowStart);
+        return true;
+    }
+
+    private boolean awaitPaid(String donationId) {
+        long deadline = System.nanoTime() + PAID_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> res = send("GET", "/api/donations/" + donationId, null);
+            if (res != null && res.statusCode() == 200) {
+                String status = Json.field(res.body(), "status");
+                if ("PAID".equals(status)) return true;
+                if ("FAILED".equals(status) || "CANCELED".equals(status)) return false;
+            }
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private HttpResponse<String> send(String method, String path, String json) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(appBase + path)).timeout(Duration.ofSeconds(30));
+        if (json != null) {
+            b.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            b.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            return client.send(b.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static double printReport(int donors, Duration duration, long completed, Map<String, LatencyRecorder.Summary> stages,
+                              long emails) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n=== %d concurrent donors, %.0fs: %d flows (%.1f flows/s), %d emails received ===%n",
+                donors, seconds, completed, completed / seconds, emails);
+        System.out.printf("%-12s %8s %8s %10s %10s %10s%n", "stage", "count", "errors", "p50 ms", "p99 ms", "max ms");
+        stages.forEach((name, s) -> System.out.printf("%-12s %8d %8d %10.1f %10.1f %10.1f%n",
+                name, s.count(), s.errors(), s.p50Ms(), s.p99Ms(), s.maxMs()));
+        return completed / seconds;
+    }
+}
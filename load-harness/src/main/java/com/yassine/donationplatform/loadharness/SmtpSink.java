@@ -0,0 +1,89 @@
+package com.yassine.donationplatform.loadharness;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Puits SMTP minimal (EHLO / MAIL / RCPT / DATA / QUIT, sans TLS ni auth) : accepte et jette
+ * chaque message, en comptant messages et octets reçus.
+ */
+final class SmtpSink {
+
+    private final int port;
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile ServerSocket server;
+
+    SmtpSink(int port) {
+        this.port = port;
+    }
+
+    void start() throws IOException {
+        server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("smtp-accept").start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofVirtual().start(() -> session(socket));
+                } catch (IOException e) {
+                    return; // fermé
+                }
+            }
+        });
+    }
+
+    void stop() throws IOException {
+        if (server != null) server.close();
+    }
+
+    long messages() {
+        return messages.get();
+    }
+
+    long bytes() {
+        return bytes.get();
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+
+            reply(out, "220 loadtest.local ESMTP sink");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String cmd = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (cmd) {
+                    case "EHLO" -> reply(out, "250-loadtest.local\r\n250-8BITMIME\r\n250 SIZE 52428800");
+                    case "HELO" -> reply(out, "250 loadtest.local");
+                    case "DATA" -> {
+                        reply(out, "354 end with <CRLF>.<CRLF>");
+                        long size = 0;
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            size += line.length() + 2;
+                        }
+                        bytes.addAndGet(size);
+                        messages.incrementAndGet();
+                        reply(out, "250 queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 ok"); // MAIL, RCPT, RSET, NOOP
+                }
+            }
+        } catch (IOException ignored) {
+            // client parti
+        }
+    }
+
+    private static void reply(Writer out, String text) throws IOException {
+        out.write(text + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,164 @@
+package com.yassine.donationplatform.loadharness;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in de l'API Stripe (à la stripe-mock) : POST /v1/checkout/sessions renvoie une session,
+ * puis un webhook checkout.session.completed signé (whsec) est renvoyé à l'application après
+ * un délai, comme le ferait Stripe une fois le paiement validé. {@code apiLatencyMs} simule la latence
+ * de l'API (quelques centaines de ms en production).
+ */
+final class StripeStub {
+
+    private final int port;
+    private final URI webhookUri;
+    private final byte[] webhookSecret;
+    private final long webhookDelayMs;
+    private final long apiLatencyMs;
+    private final LatencyRecorder recorder;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong sessions = new AtomicLong();
+    private HttpServer server;
+
+    StripeStub(int port, String appBase, String webhookSecret, long webhookDelayMs, long apiLatencyMs,
+               LatencyRecorder recorder) {
+        this.port = port;
+        this.webhookUri = URI.create(appBase + "/api/webhooks/stripe");
+        this.webhookSecret = webhookSecret.getBytes(StandardCharsets.UTF_8);
+        this.webhookDelayMs = webhookDelayMs;
+        this.apiLatencyMs = apiLatencyMs;
+        this.recorder = recorder;
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 512);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/checkout/sessions", this::createSession);
+        server.start();
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+        if (server != null) server.stop(0);
+    }
+
+    long sessionsCreated() {
+        return sessions.get();
+    }
+
+    private void createSession(HttpExchange ex) throws IOException {
+        if (!"POST".equals(ex.getRequestMethod())) {
+            ex.sendResponseHeaders(405, -1);
+            return;
+        }
+
+        Map<String, String> form = parseForm(new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String sessionId = "cs_test_" + UUID.randomUUID().toString().replace("-", "");
+        String donationId = form.getOrDefault("metadata[donationId]", "");
+        String amount = form.getOrDefault("line_items[0][price_data][unit_amount]", "0");
+        String currency = form.getOrDefault("line_items[0][price_data][currency]", "eur");
+        String email = form.get("customer_email");
+
+        // temps de réponse de l'API réelle : c'est lui qui immobilise un thread côté application
+        if (apiLatencyMs > 0) {
+            try {
+                Thread.sleep(apiLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String session = """
+                {"id":"%s","object":"checkout.session","mode":"payment","status":"open",
+                 "payment_status":"unpaid","amount_total":%s,"currency":"%s","customer_email":%s,
+                 "url":"http://localhost:%d/pay/%s","metadata":{"donationId":"%s"}}"""
+                .formatted(sessionId, amount, currency, email == null ? "null" : "\"" + Json.escape(email) + "\"",
+                        port, sessionId, donationId);
+
+        byte[] body = session.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.getResponseHeaders().set("Request-Id", "req_" + sessions.incrementAndGet());
+        ex.sendResponseHeaders(200, body.length);
+        ex.getResponseBody().write(body);
+        ex.close();
+
+        scheduler.schedule(() -> fireCompleted(sessionId, donationId, amount, currency),
+                webhookDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void fireCompleted(String sessionId, String donationId, String amount, String currency) {
+        long created = System.currentTimeMillis() / 1000;
+        String payload = """
+                {"id":"evt_%s","object":"event","api_version":"2024-06-20","created":%d,
+                 "type":"checkout.session.completed","livemode":false,"pending_webhooks":1,
+                 "data":{"object":{"id":"%s","object":"checkout.session","mode":"payment","status":"complete",
+                   "payment_status":"paid","payment_intent":"pi_%s","amount_total":%s,"currency":"%s",
+                   "metadata":{"donationId":"%s"}}}}"""
+                .formatted(UUID.randomUUID().toString().replace("-", ""), created, sessionId,
+                        UUID.randomUUID().toString().replace("-", "").substring(0, 24), amount, currency, donationId);
+
+        HttpRequest req = HttpRequest.newBuilder(webhookUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", "t=" + created + ",v1=" + sign(created + "." + payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+
+        long start = System.nanoTime();
+        client.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((res, err) -> {
+            if (err != null || res.statusCode() / 100 != 2) {
+                recorder.error("webhook.ack");
+            } else {
+                recorder.record("webhook.ack", System.nanoTime() - start);
+            }
+        });
+    }
+
+    private String sign(String signedPayload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(signedPayload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> out = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,5 @@
+#!/usr/bin/env bash
+# Exécuté par l'image postgres au premier démarrage (volume vide) : autorise le réplica de docker-compose
+# à se connecter en streaming. Sur un volume existant, ajouter la ligne à la main puis recharger.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
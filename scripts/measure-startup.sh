@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Temps de démarrage et RSS par mode de lancement (jar classique, jar extrait + CDS, AOT + CDS, natif).
+#
+#   ./mvnw -DskipTests -Paot package                # jar AOT (utilisable aussi sans AOT)
+#   ./mvnw -DskipTests -Pnative native:compile      # optionnel : target/donation-platform
+#   SPRING_PROFILES_ACTIVE=loadtest scripts/measure-startup.sh [runs]
+#
+# Il faut une base joignable (docker compose up -d db) : on mesure jusqu'à "Started ...", migrations comprises.
+set -euo pipefail
+
+RUNS="${1:-3}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup"
+JAR="$(ls "$ROOT"/target/donation-platform-*.jar | grep -v plain | head -1)"
+NATIVE="$ROOT/target/donation-platform"
+PORT="${PORT:-18080}"
+
+TRAINING_OPTS=(
+  -Dspring.context.exit=onRefresh
+  -Dapp.startup.training-run=true
+  -Dspring.datasource.url=jdbc:postgresql://localhost:1/training
+  -Dspring.jpa.hibernate.ddl-auto=none
+  -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false
+  -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
+)
+
+rm -rf "$WORK" && mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --layers --destination "$WORK/extracted" > /dev/null
+mkdir -p "$WORK/app"
+cp -r "$WORK"/extracted/*/* "$WORK/app/"
+mv "$WORK"/app/donation-platform-*.jar "$WORK/app/application.jar"
+
+echo "Training CDS archives..."
+(cd "$WORK/app" && java -XX:ArchiveClassesAtExit=jvm.jsa "${TRAINING_OPTS[@]}" -jar application.jar > "$WORK/train-jvm.log" 2>&1)
+(cd "$WORK/app" && java -XX:ArchiveClassesAtExit=aot.jsa -Dspring.aot.enabled=true "${TRAINING_OPTS[@]}" \
+  -jar application.jar > "$WORK/train-aot.log" 2>&1)
+
+# lance la commande, attend "Started", relève le temps annoncé par Spring et le RSS du process
+measure() {
+  local label="$1"; shift
+  local times=() rss=()
+  for i in $(seq 1 "$RUNS"); do
+    local log="$WORK/$label-$i.log"
+    (cd "$WORK/app" && exec "$@" --server.port="$PORT" --management.server.port=$((PORT + 1)) \
+      --logging.level.com.yassine.donationplatform.DonationPlatformApplication=INFO > "$log" 2>&1) &
+    local pid=$!
+    for _ in $(seq 1 600); do
+      grep -q "Started DonationPlatformApplication" "$log" && break
+      kill -0 "$pid" 2>/dev/null || break
+      sleep 0.1
+    done
+    if ! grep -q "Started DonationPlatformApplication" "$log"; then
+      echo "$label: failed to start, see $log" >&2
+      kill "$pid" 2>/dev/null || true
+      return
+    fi
+    sleep 1
+    times+=("$(sed -nE 's/.*Started DonationPlatformApplication in ([0-9.]+) seconds.*/\1/p' "$log")")
+    rss+=("$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status")")
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+  done
+  printf "%-12s startup(s): %-24s RSS(MB): %s\n" "$label" "${times[*]}" "${rss[*]}"
+}
+
+echo
+measure "jar"      java -jar "$JAR"
+measure "cds"      java -XX:SharedArchiveFile=jvm.jsa -jar application.jar
+measure "aot+cds"  java -XX:SharedArchiveFile=aot.jsa -Dspring.aot.enabled=true -jar application.jar
+if [[ -x "$NATIVE" ]]; then
+  measure "native" "$NATIVE"
+else
+  echo "native       skipped (no $NATIVE, build with -Pnative native:compile)"
+fi
@@ -0,0 +1,55 @@
+package com.yassine.donationplatform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yassine.donationplatform.entity.settings.AppSettings;
+import com.yassine.donationplatform.repository.AppSettingsRepository;
+import com.yassine.donationplatform.service.cache.CacheInvalidationBus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/settings côté CPU : parsing du JSON stocké + re-sérialisation à chaque appel
+ * (getPublicUi) contre le snapshot pré-sérialisé. Le repository est un stub en mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SettingsParsingBenchmark {
+
+    private SettingsService service;
+    private JsonMapper jsonMapper;
+
+    @Setup
+    public void setup() {
+        AppSettings row = new AppSettings();
+        row.setSettingsKey("PUBLIC_UI");
+        row.setSettingsJson("{\"title\":\"Give to Those in Need\",\"suggestedAmounts\":[10,\"20\",50,100,250,500]}");
+
+        AppSettingsRepository repo = (AppSettingsRepository) Proxy.newProxyInstance(
+                AppSettingsRepository.class.getClassLoader(),
+                new Class<?>[]{AppSettingsRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findBySettingsKey")) return Optional.of(row);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        jsonMapper = JsonMapper.builder().build();
+        CacheInvalidationBus bus = new CacheInvalidationBus(null, false, "cache_invalidation", 0, "", "", "");
+        service = new SettingsService(repo, new ObjectMapper(), jsonMapper, bus, DataSize.ofKilobytes(2));
+    }
+
+    @Benchmark
+    public byte[] parseAndSerialize() {
+        return jsonMapper.writeValueAsBytes(service.getPublicUi());
+    }
+
+    @Benchmark
+    public byte[] snapshot() {
+        return service.publicUiSnapshot().body();
+    }
+}
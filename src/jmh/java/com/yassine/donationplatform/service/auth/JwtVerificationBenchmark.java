@@ -0,0 +1,55 @@
+package com.yassine.donationplatform.service.auth;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérifications de JWT par seconde sous charge concurrente : parser + cache de tokens vérifiés
+ * contre vérification complète à chaque appel (cache désactivé).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String[] tokens;
+
+    @Setup
+    public void setup() {
+        cached = new JwtService(SECRET, 10_000);
+        uncached = new JwtService(SECRET, 0);
+
+        // quelques sessions admin actives qui renvoient chacune le même token
+        tokens = new String[16];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = cached.generateToken(UUID.randomUUID(), "admin" + i + "@example.org", 900);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Benchmark
+    public UUID verifyCached(Cursor c) {
+        return cached.parseUserId(tokens[c.i++ & 15]);
+    }
+
+    @Benchmark
+    public UUID verifyUncached(Cursor c) {
+        return uncached.parseUserId(tokens[c.i++ & 15]);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateToken(UUID.randomUUID(), "admin@example.org", 900);
+    }
+}
@@ -0,0 +1,39 @@
+package com.yassine.donationplatform.service.auth;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût CPU par refresh hors base : génération du token brut (SecureRandom + base64url)
+ * et SHA-256 poivré utilisé pour l'index token_hash.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RefreshTokenHashingBenchmark {
+
+    private RefreshTokenService service;
+    private String rawToken;
+
+    @Setup
+    public void setup() {
+        service = new RefreshTokenService(null, null, "bench-pepper");
+        rawToken = service.generateRawToken();
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return service.sha256Hex(rawToken);
+    }
+
+    @Benchmark
+    public String generateRawToken() {
+        return service.generateRawToken();
+    }
+
+    @Benchmark
+    public String generateAndHash() {
+        return service.sha256Hex(service.generateRawToken());
+    }
+}
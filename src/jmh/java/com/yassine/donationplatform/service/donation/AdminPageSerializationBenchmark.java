@@ -0,0 +1,92 @@
+package com.yassine.donationplatform.service.donation;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.dto.response.DonationAdminRowResponse;
+import com.yassine.donationplatform.dto.response.PageResponse;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.util.PageJsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page admin de 200 dons : chemin historique (Page -> List de DTO -> PageResponse -> Jackson)
+ * contre écriture en streaming. Lancer avec -prof gc pour comparer gc.alloc.rate.norm (octets / page).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdminPageSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 200;
+    private static final long TOTAL = 1_000_000;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private List<Donation> rows;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(PAGE_SIZE);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            rows.add(Donation.builder()
+                    .id(UUID.randomUUID())
+                    .amountCents(500 + i)
+                    .currency("EUR")
+                    .status(i % 5 == 0 ? DonationStatus.FAILED : DonationStatus.PAID)
+                    .provider(PaymentProvider.STRIPE)
+                    .paymentMethod(PaymentMethod.CARD)
+                    .email(i % 7 == 0 ? null : "donor" + i + "@example.org")
+                    .createdAt(base.plusSeconds(i * 37L))
+                    .updatedAt(base.plusSeconds(i * 37L))
+                    .build());
+        }
+
+        // garde-fou : les deux chemins doivent produire exactement les mêmes octets
+        ByteArrayOutputStream a = new ByteArrayOutputStream();
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        materialized(a);
+        streaming(b);
+        if (!Arrays.equals(a.toByteArray(), b.toByteArray())) {
+            throw new IllegalStateException("Streaming output differs from PageResponse JSON");
+        }
+    }
+
+    @Benchmark
+    public void materializedPageResponse() {
+        materialized(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void streamingJsonGenerator() {
+        streaming(OutputStream.nullOutputStream());
+    }
+
+    private void materialized(OutputStream out) {
+        Page<Donation> page = new PageImpl<>(rows, PageRequest.of(0, PAGE_SIZE), TOTAL);
+        Page<DonationAdminRowResponse> p = page.map(DonationAdminService::toRow);
+        mapper.writeValue(out, new PageResponse<>(
+                p.getContent(), p.getNumber(), p.getSize(), p.getTotalElements(),
+                p.getTotalPages(), p.isFirst(), p.isLast()));
+    }
+
+    private void streaming(OutputStream out) {
+        try (JsonGenerator gen = mapper.createGenerator(out)) {
+            PageJsonWriter.write(gen, rows.stream(), DonationAdminService::writeRow, 0, PAGE_SIZE, TOTAL);
+        }
+    }
+}
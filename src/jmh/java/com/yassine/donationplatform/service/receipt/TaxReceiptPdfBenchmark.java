@@ -0,0 +1,84 @@
+package com.yassine.donationplatform.service.receipt;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.dto.TaxReceiptStatus;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.entity.receipt.TaxReceipt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Rendu PDF d'un reçu fiscal (PDFBox + écriture disque + move atomique), sans le raccourci
+ * "fichier déjà présent" : chaque appel rend un nouveau numéro puis supprime le fichier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaxReceiptPdfBenchmark {
+
+    private TaxReceiptPdfService service;
+    private Path dir;
+    private Donation donation;
+    private long receiptNumber;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("receipts-bench");
+
+        service = new TaxReceiptPdfService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "storageDir", dir.toString());
+        ReflectionTestUtils.setField(service, "orgName", "Give to Those in Need");
+        ReflectionTestUtils.setField(service, "orgAddress", "1 rue Exemple, 75000 Paris");
+        ReflectionTestUtils.setField(service, "orgIdentifier", "RNA: W123456789");
+        ReflectionTestUtils.setField(service, "orgEmail", "contact@org.fr");
+
+        donation = Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(5000)
+                .currency("EUR")
+                .status(DonationStatus.PAID)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("donor@example.org")
+                .createdAt(Instant.parse("2026-01-15T10:00:00Z"))
+                .updatedAt(Instant.parse("2026-01-15T10:00:00Z"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path generatePdf() throws IOException {
+        TaxReceipt receipt = TaxReceipt.builder()
+                .id(UUID.randomUUID())
+                .donationId(donation.getId())
+                .receiptNumber(++receiptNumber)
+                .status(TaxReceiptStatus.REQUESTED)
+                .donorFullName("Jeanne Dupont")
+                .donorAddress("12 avenue des Donateurs, 69000 Lyon")
+                .email("donor@example.org")
+                .requestedAt(Instant.now())
+                .build();
+
+        Path pdf = service.generatePdf(receipt, donation);
+        Files.delete(pdf);
+        return pdf;
+    }
+}
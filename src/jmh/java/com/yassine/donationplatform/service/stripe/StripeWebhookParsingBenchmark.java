@@ -0,0 +1,64 @@
+package com.yassine.donationplatform.service.stripe;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réception d'un webhook checkout.session.completed : vérification de signature + désérialisation
+ * Stripe (Webhook.constructEvent), puis relecture du payload comme dans StripeWebhookService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StripeWebhookParsingBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_secret";
+    private static final long TOLERANCE_SECONDS = 24 * 3600;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String payload;
+    private String signatureHeader;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = """
+                {"id":"evt_1Q2w3E4r5T6y7U8i","object":"event","api_version":"2024-06-20","created":1767261600,
+                 "type":"checkout.session.completed","livemode":false,"pending_webhooks":1,
+                 "request":{"id":null,"idempotency_key":null},
+                 "data":{"object":{"id":"cs_test_a1B2c3D4e5F6g7H8","object":"checkout.session",
+                   "amount_subtotal":5000,"amount_total":5000,"currency":"eur","mode":"payment",
+                   "customer_email":"donor@example.org","payment_intent":"pi_3Q2w3E4r5T6y7U8i",
+                   "payment_status":"paid","status":"complete",
+                   "success_url":"https://example.org/success?donationId=8d3c1f0e-2b7a-4c55-9e61-0f5a1b2c3d4e",
+                   "cancel_url":"https://example.org/cancel?donationId=8d3c1f0e-2b7a-4c55-9e61-0f5a1b2c3d4e",
+                   "metadata":{"donationId":"8d3c1f0e-2b7a-4c55-9e61-0f5a1b2c3d4e"}}}}
+                """;
+
+        long timestamp = System.currentTimeMillis() / 1000;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String v1 = HexFormat.of().formatHex(mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8)));
+        signatureHeader = "t=" + timestamp + ",v1=" + v1;
+    }
+
+    @Benchmark
+    public Event constructEvent() throws Exception {
+        return Webhook.constructEvent(payload, signatureHeader, SECRET, TOLERANCE_SECONDS);
+    }
+
+    @Benchmark
+    public String constructEventAndReadSession() throws Exception {
+        Event event = Webhook.constructEvent(payload, signatureHeader, SECRET, TOLERANCE_SECONDS);
+        JsonNode root = objectMapper.readTree(event.getDataObjectDeserializer().getRawJson());
+        return root.path("metadata").path("donationId").asText(null) + root.path("payment_status").asText();
+    }
+}
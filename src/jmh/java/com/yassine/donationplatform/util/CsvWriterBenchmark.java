@@ -0,0 +1,57 @@
+package com.yassine.donationplatform.util;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.dto.response.DonationAdminRowResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export CSV admin de 5000 dons (taille typique d'un mois) et masquage d'emails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvWriterBenchmark {
+
+    private static final int ROWS = 5000;
+
+    private List<DonationAdminRowResponse> rows;
+    private String[] emails;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(ROWS);
+        emails = new String[ROWS];
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < ROWS; i++) {
+            emails[i] = i % 11 == 0 ? null : "donor.number" + i + "@example.org";
+            rows.add(new DonationAdminRowResponse(
+                    UUID.randomUUID(), base.plusSeconds(i * 97L), 500 + i, "EUR",
+                    i % 5 == 0 ? DonationStatus.FAILED : DonationStatus.PAID,
+                    PaymentProvider.STRIPE, PaymentMethod.CARD, EmailMasker.mask(emails[i])));
+        }
+    }
+
+    @Benchmark
+    public byte[] donationsToCsv() {
+        return CsvWriter.donationsToCsv(rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int maskEmails() {
+        int len = 0;
+        for (String email : emails) {
+            String masked = EmailMasker.mask(email);
+            if (masked != null) len += masked.length();
+        }
+        return len;
+    }
+}
@@ -0,0 +1,76 @@
+package com.yassine.donationplatform.config;
+
+import com.yassine.donationplatform.observability.InstrumentedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Pool primaire (spring.datasource.*) + réplica optionnel (app.datasource.replica.*, pool Hikari séparé).
+ * Le DataSource exposé est un LazyConnectionDataSourceProxy : la connexion n'est prise qu'à la première
+ * requête SQL, une fois la transaction (et son readOnly) connue. Sans réplica configuré, tout va au primaire.
+ * Enveloppé par {@link InstrumentedDataSource} (requêtes et lignes par requête HTTP).
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties primaryProperties,
+            Environment env,
+            MeterRegistry registry,
+            @Value("${app.datasource.replica.url:}") String url,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag
+    ) {
+        HikariDataSource replica = null;
+        if (url != null && !url.isBlank()) {
+            replica = new HikariDataSource();
+            replica.setPoolName("replica");
+            replica.setJdbcUrl(url);
+            replica.setUsername(orDefault(env.getProperty("app.datasource.replica.username"),
+                    primaryProperties.determineUsername()));
+            replica.setPassword(orDefault(env.getProperty("app.datasource.replica.password"),
+                    primaryProperties.determinePassword()));
+            replica.setReadOnly(true);
+            // app.datasource.replica.hikari.* : mêmes clés que spring.datasource.hikari.*
+            Binder.get(env).bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replica, maxLag, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRouting) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        if (replicaRouting.configured()) {
+            proxy.setReadOnlyDataSource(replicaRouting);
+        }
+        return new InstrumentedDataSource(proxy);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return StringUtils.hasText(value) ? value : fallback;
+    }
+}
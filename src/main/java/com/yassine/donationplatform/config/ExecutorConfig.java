@@ -0,0 +1,50 @@
+package com.yassine.donationplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    // exports admin : peu de threads, file bornée (refus rapide si saturé) ;
+    // threads virtuels si spring.threads.virtual.enabled (mêmes bornes, attente JDBC / disque sans bloquer de carrier)
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${app.export.worker-threads:2}") int threads,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("export-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        // pas d'interruption dès la fermeture du contexte : c'est ShutdownCoordinator qui draine
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // hash / vérification de mots de passe : isolé des threads Tomcat, refus immédiat si la file est pleine.
+    // Toujours des threads plateforme : travail CPU pur, un thread virtuel n'apporterait rien
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${app.auth.hashing.threads:0}") int threads,
+            @Value("${app.auth.hashing.queue-capacity:16}") int queueCapacity
+    ) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pwd-hash-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
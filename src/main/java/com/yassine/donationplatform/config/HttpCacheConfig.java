@@ -0,0 +1,22 @@
+package com.yassine.donationplatform.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(HttpCacheProps.class)
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    private final HttpCacheProps props;
+
+    public HttpCacheConfig(HttpCacheProps props) {
+        this.props = props;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HttpCacheInterceptor(props)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,35 @@
+package com.yassine.donationplatform.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Pose le Cache-Control de {@link HttpCachePolicy} avant l'appel du contrôleur : présent aussi sur le 304
+ * que Spring MVC renvoie sans réécrire les en-têtes déjà posés.
+ */
+public class HttpCacheInterceptor implements HandlerInterceptor {
+
+    private final HttpCacheProps props;
+
+    public HttpCacheInterceptor(HttpCacheProps props) {
+        this.props = props;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            HttpCachePolicy policy = method.getMethodAnnotation(HttpCachePolicy.class);
+            if (policy == null) {
+                policy = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), HttpCachePolicy.class);
+            }
+            if (policy != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, props.cacheControl(policy.value()));
+            }
+        }
+        return true;
+    }
+}
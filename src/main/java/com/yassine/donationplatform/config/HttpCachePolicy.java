@@ -0,0 +1,17 @@
+package com.yassine.donationplatform.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Cache-Control d'un endpoint GET, lu dans app.http.cache.policies.&lt;value&gt; et posé par
+ * {@link HttpCacheInterceptor}, 304 compris. Le contrôleur ne fournit que l'ETag de sa réponse
+ * ({@code ResponseEntity.ok().eTag(...)}) : Spring MVC compare If-None-Match et répond 304 sans corps.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HttpCachePolicy {
+
+    /** Nom de la politique (clé de app.http.cache.policies). */
+    String value();
+}
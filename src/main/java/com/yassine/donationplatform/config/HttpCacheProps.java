@@ -0,0 +1,25 @@
+package com.yassine.donationplatform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Politiques Cache-Control nommées (valeur brute de l'en-tête), référencées par {@link HttpCachePolicy}, ex. :
+ * {@code app.http.cache.policies.donation=private, no-cache}.
+ */
+@ConfigurationProperties(prefix = "app.http.cache")
+public record HttpCacheProps(Map<String, String> policies) {
+
+    public HttpCacheProps {
+        if (policies == null) policies = Map.of();
+    }
+
+    public String cacheControl(String policy) {
+        String value = policies.get(policy);
+        if (value == null) {
+            throw new IllegalStateException("No app.http.cache.policies." + policy + " configured");
+        }
+        return value;
+    }
+}
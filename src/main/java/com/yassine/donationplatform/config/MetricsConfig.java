@@ -0,0 +1,45 @@
+package com.yassine.donationplatform.config;
+
+import com.yassine.donationplatform.security.jwt.AuthPrincipalCache;
+import com.yassine.donationplatform.service.auth.JwtService;
+import com.yassine.donationplatform.service.stripe.StripeCircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // caches locaux : mêmes chiffres que /api/admin/stats/caches, côté Prometheus
+    @Bean
+    public MeterBinder localCacheMetrics(AuthPrincipalCache principalCache, JwtService jwtService) {
+        return registry -> {
+            Gauge.builder("app.cache.size", principalCache, c -> c.stats().size())
+                    .tag("cache", "authPrincipal").register(registry);
+            FunctionCounter.builder("app.cache.hits", principalCache, c -> c.stats().hits())
+                    .tag("cache", "authPrincipal").register(registry);
+            FunctionCounter.builder("app.cache.misses", principalCache, c -> c.stats().misses())
+                    .tag("cache", "authPrincipal").register(registry);
+
+            Gauge.builder("app.cache.size", jwtService, s -> s.cacheStats().size())
+                    .tag("cache", "jwtVerified").register(registry);
+            FunctionCounter.builder("app.cache.hits", jwtService, s -> s.cacheStats().hits())
+                    .tag("cache", "jwtVerified").register(registry);
+            FunctionCounter.builder("app.cache.misses", jwtService, s -> s.cacheStats().misses())
+                    .tag("cache", "jwtVerified").register(registry);
+        };
+    }
+
+    // 0 = CLOSED, 1 = HALF_OPEN, 2 = OPEN
+    @Bean
+    public MeterBinder stripeCircuitMetrics(StripeCircuitBreaker circuit) {
+        return registry -> Gauge.builder("stripe.circuit.state", circuit, c -> switch (c.state()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .register(registry);
+    }
+}
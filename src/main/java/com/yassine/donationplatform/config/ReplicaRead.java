@@ -0,0 +1,15 @@
+package com.yassine.donationplatform.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Lectures tolérant un léger retard (listes admin, exports, tableaux de bord, consultations publiques) :
+ * à l'intérieur d'une transaction readOnly, la connexion vient du réplica s'il est configuré et à jour
+ * (cf. {@link ReplicaRoutingDataSource}). Sans cette annotation, tout va au primaire, y compris les
+ * lectures readOnly par défaut des repositories Spring Data.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
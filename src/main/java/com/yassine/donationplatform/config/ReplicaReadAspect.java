@@ -0,0 +1,21 @@
+package com.yassine.donationplatform.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// avant l'intercepteur transactionnel : le marqueur est posé quand la connexion est demandée
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@within(com.yassine.donationplatform.config.ReplicaRead) "
+            + "|| @annotation(com.yassine.donationplatform.config.ReplicaRead)")
+    public Object aroundReplicaRead(ProceedingJoinPoint pjp) throws Throwable {
+        return ReplicaRoutingDataSource.withReplicaReads(pjp::proceed);
+    }
+}
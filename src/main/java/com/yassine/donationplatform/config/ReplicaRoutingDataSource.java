@@ -0,0 +1,149 @@
+package com.yassine.donationplatform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Source "lecture seule" du LazyConnectionDataSourceProxy : ne reçoit que les connexions des transactions
+ * readOnly, et ne les sert depuis le réplica que dans un appel {@link ReplicaRead} et si le retard de
+ * réplication mesuré reste sous max-lag. Sinon (pas de réplica, réplica en retard ou injoignable) : primaire.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    // 0 si le réplica a rejoué tout le WAL reçu (sinon un primaire inactif paraîtrait en retard)
+    private static final String LAG_SQL = """
+            select case
+              when not pg_is_in_recovery() then 0
+              when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+              else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+            end""";
+
+    @FunctionalInterface
+    public interface ReplicaCall<T> {
+        T call() throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource ds) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final HikariDataSource replica;
+    private final double maxLagSeconds;
+    private final Counter fallbacks;
+
+    private volatile boolean replicaUsable;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, HikariDataSource replica, Duration maxLag,
+                                    MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.fallbacks = registry.counter("db.replica.fallback");
+
+        Gauge.builder("db.replica.lag.seconds", this, ds -> ds.lagSeconds).register(registry);
+        Gauge.builder("db.replica.usable", this, ds -> ds.replicaUsable ? 1 : 0).register(registry);
+    }
+
+    public static <T> T withReplicaReads(ReplicaCall<T> call) throws Throwable {
+        Boolean previous = REPLICA_READS.get();
+        REPLICA_READS.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) REPLICA_READS.remove();
+            else REPLICA_READS.set(previous);
+        }
+    }
+
+    /** Variante programmatique de {@link ReplicaRead}, pour un bloc à l'intérieur d'une méthode. */
+    public static <T> T readFromReplica(Supplier<T> call) {
+        try {
+            return withReplicaReads(call::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean configured() {
+        return replica != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (replica != null && Boolean.TRUE.equals(REPLICA_READS.get())) {
+            if (replicaUsable) {
+                try {
+                    return source.open(replica);
+                } catch (SQLException e) {
+                    replicaUsable = false;
+                    log.warn("Replica connection failed, reads fall back to primary: {}", e.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        return source.open(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        if (replica == null) return;
+
+        boolean usable;
+        try (Connection c = replica.getConnection();
+             Statement st = c.createStatement()) {
+            st.setQueryTimeout(2);
+            try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                lagSeconds = rs.getDouble(1);
+            }
+            usable = lagSeconds <= maxLagSeconds;
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) log.info("Replica usable (lag {}s)", lagSeconds);
+            else log.warn("Replica not usable (lag {}s, max {}s): reads go to primary", lagSeconds, maxLagSeconds);
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void destroy() {
+        if (replica != null) replica.close();
+    }
+}
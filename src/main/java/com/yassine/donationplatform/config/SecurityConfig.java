@@ -3,6 +3,9 @@ package com.yassine.donationplatform.config;
 
 import com.yassine.donationplatform.security.jwt.JwtAuthFilter;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -16,15 +19,43 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final JwtAuthFilter jwtAuthFilter;
 
     public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
     }
 
+    /**
+     * Coût BCrypt calibré au démarrage : le plus élevé dont un hash reste sous target-ms
+     * sur cette machine, borné par [min-strength, max-strength].
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.auth.hashing.target-ms:250}") long targetMs,
+            @Value("${app.auth.hashing.min-strength:10}") int minStrength,
+            @Value("${app.auth.hashing.max-strength:14}") int maxStrength
+    ) {
+        int strength = calibrateBCryptStrength(targetMs, minStrength, maxStrength);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private static int calibrateBCryptStrength(long targetMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration"); // warm-up (JIT)
+
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 1.0);
+
+        // chaque +1 de coût double le temps
+        int extra = (int) Math.floor(Math.log(targetMs / elapsedMs) / Math.log(2));
+        int strength = Math.min(Math.max(minStrength + extra, minStrength), maxStrength);
+
+        log.info("BCrypt calibrated: strength={} (cost {} took {}ms, target {}ms)",
+                strength, minStrength, Math.round(elapsedMs), targetMs);
+        return strength;
     }
 
     @Bean
@@ -42,7 +73,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/admin/account/support-reset-password").permitAll()
                         .requestMatchers("/api/admin/**").authenticated()
                         .requestMatchers("/api/webhooks/**").permitAll()
-                        .requestMatchers("/health").permitAll()
+                        .requestMatchers("/health", "/health/**").permitAll()
                         .requestMatchers("/api/**").permitAll()
                         .anyRequest().permitAll()
                 )
@@ -0,0 +1,118 @@
+package com.yassine.donationplatform.config;
+
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.StripeError;
+import com.stripe.model.checkout.Session;
+import com.stripe.param.checkout.SessionCreateParams;
+import org.springframework.aot.AotDetector;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.boot.tomcat.autoconfigure.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Démarrage rapide (cf. Dockerfile) : run d'entraînement de l'archive CDS, cohérence du contexte AOT
+ * et hints GraalVM pour l'image native. Les hints sont sans effet sur la JVM classique.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(StartupConfig.LibraryHints.class)
+public class StartupConfig {
+
+    // Run d'entraînement CDS au build de l'image : pas de base disponible. Avec Spring AOT le bean Flyway
+    // est figé au build (spring.flyway.enabled=false n'a plus d'effet), on saute donc la migration ici.
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.startup.training-run:false}") boolean trainingRun) {
+        return flyway -> {
+            if (!trainingRun) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    // Avec Spring AOT, @ConditionalOnThreading est évalué au build : Tomcat garde le mode du build
+    // (-Daot.virtual-threads) alors que ExecutorConfig et VirtualThreadPinningMonitor lisent la valeur
+    // courante. Plutôt que tourner à moitié basculé, on refuse de démarrer.
+    @Bean
+    public SmartInitializingSingleton aotVirtualThreadsCheck(
+            ObjectProvider<TomcatVirtualThreadsWebServerFactoryCustomizer> tomcatVirtualThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return () -> {
+            if (!AotDetector.useGeneratedArtifacts()) return;
+            boolean builtWithVirtualThreads = tomcatVirtualThreads.getIfAvailable() != null;
+            if (builtWithVirtualThreads != virtualThreads) {
+                throw new IllegalStateException("spring.threads.virtual.enabled=" + virtualThreads
+                        + " but the AOT context was built with " + builtWithVirtualThreads
+                        + ": rebuild with -Daot.virtual-threads=" + virtualThreads
+                        + " (Docker: --build-arg APP_VIRTUAL_THREADS=" + virtualThreads + ")");
+            }
+        };
+    }
+
+    private static final MemberCategory[] REFLECTIVE = {
+            MemberCategory.ACCESS_DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS
+    };
+
+    // jjwt-api instancie son implémentation par nom (Classes.newInstance), jjwt-impl est en scope runtime
+    private static final List<String> JJWT_IMPL = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    static class LibraryHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // PDFBox : métriques AFM des polices standard 14, glyphlist, profils ICC
+            hints.resources().registerPattern("org/apache/pdfbox/resources/*");
+            hints.resources().registerPattern("org/apache/pdfbox/resources/**/*");
+            hints.resources().registerPattern("org/apache/fontbox/resources/**/*");
+
+            // Stripe : Gson (dé)sérialise les modèles et les paramètres par réflexion sur les champs
+            registerTree(hints, Session.class);
+            registerTree(hints, SessionCreateParams.class);
+            registerTree(hints, Event.class);
+            registerTree(hints, EventDataObjectDeserializer.class);
+            registerTree(hints, StripeError.class);
+
+            for (String type : JJWT_IMPL) {
+                hints.reflection().registerType(TypeReference.of(type), REFLECTIVE);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+
+        // la classe et ses classes imbriquées (LineItem, PriceData, Data...)
+        private static void registerTree(RuntimeHints hints, Class<?> type) {
+            hints.reflection().registerType(type, REFLECTIVE);
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                registerTree(hints, nested);
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.yassine.donationplatform.controller;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.yassine.donationplatform.observability.ReadinessMonitor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,11 +15,34 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class HealthController {
 
-    @GetMapping("/health")
+    private final ApplicationAvailability availability;
+    private final ReadinessMonitor readiness;
+
+    public HealthController(ApplicationAvailability availability, ReadinessMonitor readiness) {
+        this.availability = availability;
+        this.readiness = readiness;
+    }
+
+    // liveness : le process répond (aucune dépendance externe, sinon redémarrages en cascade)
+    @GetMapping({"/health", "/health/live"})
     public ResponseEntity<Map<String, Object>> health() {
-        return ResponseEntity.ok(Map.of(
-                "status", "UP",
+        boolean live = availability.getLivenessState() == LivenessState.CORRECT;
+        return ResponseEntity.status(live ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "status", live ? "UP" : "DOWN",
                 "timestamp", Instant.now().toString()
         ));
     }
+
+    // readiness : dernier résultat des vérifications planifiées, 503 pour que le load balancer déleste
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        ReadinessMonitor.Snapshot s = readiness.snapshot();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", s.ready() ? "READY" : "NOT_READY");
+        body.put("checks", s.checks());
+        body.put("checkedAt", s.checkedAt() == null ? null : s.checkedAt().toString());
+
+        return ResponseEntity.status(s.ready() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
 }
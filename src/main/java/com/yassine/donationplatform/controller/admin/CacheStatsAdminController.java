@@ -0,0 +1,31 @@
+package com.yassine.donationplatform.controller.admin;
+
+import com.yassine.donationplatform.security.jwt.AuthPrincipalCache;
+import com.yassine.donationplatform.service.auth.JwtService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/stats/caches")
+public class CacheStatsAdminController {
+
+    private final AuthPrincipalCache principalCache;
+    private final JwtService jwtService;
+
+    public CacheStatsAdminController(AuthPrincipalCache principalCache, JwtService jwtService) {
+        this.principalCache = principalCache;
+        this.jwtService = jwtService;
+    }
+
+    @GetMapping
+    public Map<String, Object> caches() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("authPrincipal", principalCache.stats());
+        out.put("jwtVerified", jwtService.cacheStats());
+        return out;
+    }
+}
@@ -1,16 +1,19 @@
 package com.yassine.donationplatform.controller.admin;
 
 import com.yassine.donationplatform.dto.DonationStatus;
-import com.yassine.donationplatform.dto.response.DonationAdminRowResponse;
-import com.yassine.donationplatform.dto.response.PageResponse;
+import com.yassine.donationplatform.dto.response.DonationImportResponse;
 import com.yassine.donationplatform.service.donation.DonationAdminService;
+import com.yassine.donationplatform.service.donation.DonationImportService;
 import com.yassine.donationplatform.util.CsvWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 import static org.springframework.format.annotation.DateTimeFormat.ISO;
@@ -20,30 +23,26 @@ import static org.springframework.format.annotation.DateTimeFormat.ISO;
 public class DonationAdminController {
 
     private final DonationAdminService adminService;
+    private final DonationImportService importService;
 
-    public DonationAdminController(DonationAdminService adminService) {
+    public DonationAdminController(DonationAdminService adminService, DonationImportService importService) {
         this.adminService = adminService;
+        this.importService = importService;
     }
 
+    // sérialisation en streaming : même JSON que PageResponse<DonationAdminRowResponse>
     @GetMapping
-    public PageResponse<DonationAdminRowResponse> list(
+    public void list(
             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
             @RequestParam(required = false) DonationStatus status,
+            @RequestParam(required = false) String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
-    ) {
-        var p = adminService.listPage(from, to, status, page, size);
-
-        return new PageResponse<>(
-                p.getContent(),
-                p.getNumber(),
-                p.getSize(),
-                p.getTotalElements(),
-                p.getTotalPages(),
-                p.isFirst(),
-                p.isLast()
-        );
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        adminService.writePage(from, to, status, q, page, size, response.getOutputStream());
     }
 
     @GetMapping(value = "/export.csv", produces = "text/csv")
@@ -52,7 +51,7 @@ public class DonationAdminController {
             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
             @RequestParam(required = false) DonationStatus status
     ) {
-        var rows = adminService.listPage(from, to, status, 0, 200).getContent(); // petit garde-fou
+        var rows = adminService.listPage(from, to, status, null, 0, 200).getContent(); // petit garde-fou
         byte[] csv = CsvWriter.donationsToCsv(rows);
 
         String filename = "donations.csv";
@@ -61,4 +60,10 @@ public class DonationAdminController {
                 .contentType(MediaType.valueOf("text/csv"))
                 .body(csv);
     }
+
+    // corps brut text/csv (pas de multipart) : lu en flux, jamais chargé en mémoire
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public DonationImportResponse importCsv(HttpServletRequest request) throws IOException {
+        return importService.importCsv(request.getInputStream());
+    }
 }
@@ -0,0 +1,42 @@
+package com.yassine.donationplatform.controller.admin;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.response.DonationDailyRollupResponse;
+import com.yassine.donationplatform.service.stats.DonationStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+public class DonationStatsAdminController {
+
+    private final DonationStatsService statsService;
+
+    public DonationStatsAdminController(DonationStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("/donations/daily")
+    public List<DonationDailyRollupResponse> daily(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @RequestParam(required = false) DonationStatus status,
+            @RequestParam(required = false) PaymentMethod paymentMethod,
+            @RequestParam(required = false) String currency
+    ) {
+        return statsService.daily(from, to, status, paymentMethod, currency);
+    }
+
+    @PostMapping("/donations/daily/rebuild")
+    public Map<String, Object> rebuild() {
+        int rows = statsService.rebuild();
+        return Map.of("rows", rows);
+    }
+}
@@ -0,0 +1,38 @@
+package com.yassine.donationplatform.controller.admin;
+
+import com.yassine.donationplatform.dto.request.CreateExportJobRequest;
+import com.yassine.donationplatform.dto.response.ExportJobResponse;
+import com.yassine.donationplatform.service.export.ExportJobService;
+import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/exports")
+public class ExportJobAdminController {
+
+    private final ExportJobService exports;
+
+    public ExportJobAdminController(ExportJobService exports) {
+        this.exports = exports;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExportJobResponse> create(@Valid @RequestBody CreateExportJobRequest req) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exports.create(req));
+    }
+
+    @GetMapping("/{id}")
+    public ExportJobResponse get(@PathVariable UUID id) {
+        return exports.get(id);
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable UUID id) {
+        return exports.download(id);
+    }
+}
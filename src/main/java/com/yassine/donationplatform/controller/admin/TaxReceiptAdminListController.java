@@ -1,12 +1,13 @@
 package com.yassine.donationplatform.controller.admin;
 
 import com.yassine.donationplatform.dto.TaxReceiptStatus;
-import com.yassine.donationplatform.dto.response.PageResponse;
-import com.yassine.donationplatform.dto.response.ReceiptAdminRowResponse;
 import com.yassine.donationplatform.service.receipt.TaxReceiptAdminService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 import static org.springframework.format.annotation.DateTimeFormat.ISO;
@@ -21,24 +22,18 @@ public class TaxReceiptAdminListController {
         this.adminService = adminService;
     }
 
+    // sérialisation en streaming : même JSON que PageResponse<ReceiptAdminRowResponse>
     @GetMapping
-    public PageResponse<ReceiptAdminRowResponse> list(
+    public void list(
             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
             @RequestParam(required = false) TaxReceiptStatus status,
+            @RequestParam(required = false) String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
-    ) {
-        var p = adminService.listPage(from, to, status, page, size);
-
-        return new PageResponse<>(
-                p.getContent(),
-                p.getNumber(),
-                p.getSize(),
-                p.getTotalElements(),
-                p.getTotalPages(),
-                p.isFirst(),
-                p.isLast()
-        );
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        adminService.writePage(from, to, status, q, page, size, response.getOutputStream());
     }
 }
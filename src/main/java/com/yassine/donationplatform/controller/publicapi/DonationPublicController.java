@@ -1,12 +1,15 @@
 package com.yassine.donationplatform.controller.publicapi;
 
 import com.stripe.model.checkout.Session;
+import com.yassine.donationplatform.config.HttpCachePolicy;
 import com.yassine.donationplatform.dto.PaymentMethod;
 import com.yassine.donationplatform.dto.request.CreateCheckoutSessionRequest;
 import com.yassine.donationplatform.dto.response.CheckoutSessionResponse;
 import com.yassine.donationplatform.dto.response.DonationResponse;
 import com.yassine.donationplatform.service.donation.DonationService;
+import com.yassine.donationplatform.service.donation.DonationStateMachine;
 import com.yassine.donationplatform.service.stripe.StripeCheckoutService;
+import com.yassine.donationplatform.util.HttpValidators;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +22,7 @@ import java.util.UUID;
 public class DonationPublicController {
 
     private final DonationService donationService;
+    private final DonationStateMachine stateMachine;
     private final StripeCheckoutService stripeCheckoutService;
 
     @Value("${app.donation.min-amount-cents}")
@@ -27,8 +31,10 @@ public class DonationPublicController {
     @Value("${app.donation.currency}")
     private String currency;
 
-    public DonationPublicController(DonationService donationService, StripeCheckoutService stripeCheckoutService) {
+    public DonationPublicController(DonationService donationService, DonationStateMachine stateMachine,
+                                    StripeCheckoutService stripeCheckoutService) {
         this.donationService = donationService;
+        this.stateMachine = stateMachine;
         this.stripeCheckoutService = stripeCheckoutService;
     }
 
@@ -45,21 +51,38 @@ public class DonationPublicController {
                 ? PaymentMethod.PAYPAL
                 : PaymentMethod.CARD;
 
+        // pas de don PENDING orphelin quand Stripe est déjà connu comme indisponible
+        stripeCheckoutService.ensureAvailable();
+
         var donation = donationService.createDonation(amountCents, currency, pm, req.getEmail());
 
-        Session session = stripeCheckoutService.createCheckoutSession(donation);
+        Session session;
+        try {
+            session = stripeCheckoutService.createCheckoutSession(donation);
+        } catch (Exception e) {
+            // refus du bulkhead / de l'appel d'essai HALF_OPEN, ou erreur Stripe : le don ne restera pas CREATED
+            stateMachine.markFailed(donation.getId(), null);
+            throw e;
+        }
 
-        donation.setStripeCheckoutSessionId(session.getId());
-        donationService.save(donation);
+        // pas de save() de l'entité lue avant l'appel Stripe : le webhook a pu passer le don en PAID entre-temps
+        stateMachine.markPending(donation.getId(), session.getId());
 
         return ResponseEntity.ok(new CheckoutSessionResponse(donation.getId(), session.getUrl()));
     }
 
     @GetMapping("/donations/{id}")
+    @HttpCachePolicy("donation")
     public ResponseEntity<DonationResponse> getDonation(@PathVariable UUID id) {
-        return donationService.findById(id)
-                .map(d -> ResponseEntity.ok(new DonationResponse(
-                        d.getId(), d.getAmountCents(), d.getCurrency(), d.getStatus(), d.getCreatedAt())))
-                .orElse(ResponseEntity.notFound().build());
+        var donation = donationService.findByIdPreferReplica(id).orElse(null);
+        if (donation == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // la page de retour Stripe interroge en boucle : 304 tant que le statut n'a pas bougé
+        return ResponseEntity.ok()
+                .eTag(HttpValidators.weakEtag(donation.getId(), donation.getStatus(), donation.getUpdatedAt()))
+                .body(new DonationResponse(
+                        donation.getId(), donation.getAmountCents(), donation.getCurrency(), donation.getStatus(), donation.getCreatedAt()));
     }
 }
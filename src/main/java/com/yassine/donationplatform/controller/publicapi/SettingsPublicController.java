@@ -1,7 +1,11 @@
 package com.yassine.donationplatform.controller.publicapi;
 
-import com.yassine.donationplatform.dto.response.SettingsResponse;
+import com.yassine.donationplatform.config.HttpCachePolicy;
 import com.yassine.donationplatform.service.SettingsService;
+import com.yassine.donationplatform.util.AcceptEncoding;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,7 +19,22 @@ public class SettingsPublicController {
     }
 
     @GetMapping("/settings")
-    public SettingsResponse getSettings() {
-        return settingsService.getPublicUi();
+    @HttpCachePolicy("settings")
+    public ResponseEntity<byte[]> getSettings(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var snap = settingsService.publicUiSnapshot();
+
+        // variante gzip précompressée : Tomcat ne recompresse pas une réponse qui a déjà un Content-Encoding
+        boolean gzip = snap.gzipBody() != null && AcceptEncoding.accepts(acceptEncoding, "gzip");
+
+        // If-None-Match identique -> 304 sans corps (Spring MVC, depuis l'ETag de la réponse)
+        var response = ResponseEntity.ok()
+                .eTag(gzip ? snap.gzipEtag() : snap.etag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snap.gzipBody());
+        }
+        return response.body(snap.body());
     }
 }
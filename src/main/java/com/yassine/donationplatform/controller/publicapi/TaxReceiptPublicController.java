@@ -1,9 +1,12 @@
 package com.yassine.donationplatform.controller.publicapi;
 
+import com.yassine.donationplatform.config.HttpCachePolicy;
 import com.yassine.donationplatform.dto.request.ReceiptRequest;
 import com.yassine.donationplatform.dto.response.ReceiptResponse;
 import com.yassine.donationplatform.service.receipt.TaxReceiptService;
+import com.yassine.donationplatform.util.HttpValidators;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
@@ -24,7 +27,11 @@ public class TaxReceiptPublicController {
     }
 
     @GetMapping("/{id}")
-    public ReceiptResponse get(@PathVariable UUID id) {
-        return service.getById(id);
+    @HttpCachePolicy("receipt")
+    public ResponseEntity<ReceiptResponse> get(@PathVariable UUID id) {
+        ReceiptResponse receipt = service.getById(id);
+        return ResponseEntity.ok()
+                .eTag(HttpValidators.weakEtag(receipt.getId(), receipt.getStatus(), receipt.getReceiptNumber()))
+                .body(receipt);
     }
 }
@@ -33,18 +33,22 @@ public class StripeWebhookController {
             return ResponseEntity.badRequest().body("missing signature");
         }
 
+        Event event;
         try {
-            Event event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
+            event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
+        } catch (SignatureVerificationException e) {
+            log.warn("Stripe webhook signature verification failed");
+            return ResponseEntity.badRequest().body("invalid signature");
+        }
 
-            log.debug("Stripe webhook received type={}", event.getType());
+        log.debug("Stripe webhook received id={} type={}", event.getId(), event.getType());
 
+        try {
             stripeWebhookService.handle(event);
             return ResponseEntity.ok("ok");
-        } catch (SignatureVerificationException e) {
-            log.warn("Stripe webhook signature verification failed");
-            return ResponseEntity.badRequest().body("invalid signature");
         } catch (Exception e) {
-            log.error("Stripe webhook handler failed");
+            // 500 : Stripe relivrera l'événement
+            log.error("Stripe webhook handler failed id={} type={}", event.getId(), event.getType(), e);
             return ResponseEntity.status(500).body("error");
         }
     }
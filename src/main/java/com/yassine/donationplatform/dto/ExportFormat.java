@@ -0,0 +1,6 @@
+package com.yassine.donationplatform.dto;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
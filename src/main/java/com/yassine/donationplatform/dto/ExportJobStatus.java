@@ -0,0 +1,9 @@
+package com.yassine.donationplatform.dto;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED,
+    EXPIRED
+}
@@ -1,7 +1,15 @@
 package com.yassine.donationplatform.dto;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PaymentMethod {
     CARD,
     PAYPAL,
-    UNKNOWN
+    UNKNOWN,
+    CHEQUE,
+    CASH,
+    BANK_TRANSFER;
+
+    public static final Set<PaymentMethod> OFFLINE = EnumSet.of(CHEQUE, CASH, BANK_TRANSFER);
 }
@@ -1,5 +1,6 @@
 package com.yassine.donationplatform.dto;
 
 public enum PaymentProvider {
-    STRIPE
+    STRIPE,
+    OFFLINE // saisi / importé par l'admin (chèque, espèces, virement)
 }
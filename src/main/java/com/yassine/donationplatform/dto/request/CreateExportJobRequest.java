@@ -0,0 +1,37 @@
+package com.yassine.donationplatform.dto.request;
+
+import com.yassine.donationplatform.dto.ExportFormat;
+import com.yassine.donationplatform.dto.ExportKind;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public class CreateExportJobRequest {
+
+    @NotNull
+    private ExportKind kind;
+
+    // CSV par défaut
+    private ExportFormat format;
+
+    private LocalDate from;
+    private LocalDate to;
+
+    // DonationStatus ou TaxReceiptStatus selon kind
+    private String status;
+
+    public ExportKind getKind() { return kind; }
+    public void setKind(ExportKind kind) { this.kind = kind; }
+
+    public ExportFormat getFormat() { return format; }
+    public void setFormat(ExportFormat format) { this.format = format; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
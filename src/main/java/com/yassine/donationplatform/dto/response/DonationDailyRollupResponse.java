@@ -0,0 +1,32 @@
+package com.yassine.donationplatform.dto.response;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+
+import java.time.LocalDate;
+
+public class DonationDailyRollupResponse {
+    private LocalDate day;
+    private DonationStatus status;
+    private PaymentMethod paymentMethod;
+    private String currency;
+    private long count;
+    private long amountCents;
+
+    public DonationDailyRollupResponse(LocalDate day, DonationStatus status, PaymentMethod paymentMethod,
+                                       String currency, long count, long amountCents) {
+        this.day = day;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+        this.currency = currency;
+        this.count = count;
+        this.amountCents = amountCents;
+    }
+
+    public LocalDate getDay() { return day; }
+    public DonationStatus getStatus() { return status; }
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public String getCurrency() { return currency; }
+    public long getCount() { return count; }
+    public long getAmountCents() { return amountCents; }
+}
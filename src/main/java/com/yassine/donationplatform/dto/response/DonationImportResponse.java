@@ -0,0 +1,42 @@
+package com.yassine.donationplatform.dto.response;
+
+import java.util.List;
+
+public class DonationImportResponse {
+    private long lines;
+    private long imported;
+    private long rejected;
+    private List<LineError> errors;
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    public DonationImportResponse(long lines, long imported, long rejected, List<LineError> errors,
+                                  boolean errorsTruncated, long durationMs) {
+        this.lines = lines;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.durationMs = durationMs;
+    }
+
+    public long getLines() { return lines; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public List<LineError> getErrors() { return errors; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public long getDurationMs() { return durationMs; }
+
+    public static class LineError {
+        private long line;
+        private String message;
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+}
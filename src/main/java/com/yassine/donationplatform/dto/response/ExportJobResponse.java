@@ -0,0 +1,53 @@
+package com.yassine.donationplatform.dto.response;
+
+import com.yassine.donationplatform.dto.ExportFormat;
+import com.yassine.donationplatform.dto.ExportJobStatus;
+import com.yassine.donationplatform.dto.ExportKind;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ExportJobResponse {
+    private UUID id;
+    private ExportKind kind;
+    private ExportFormat format;
+    private ExportJobStatus status;
+    private Long rowCount;
+    private Long bytes;
+    private Long durationMs;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private Instant expiresAt;
+    private String downloadUrl;
+
+    public ExportJobResponse(UUID id, ExportKind kind, ExportFormat format, ExportJobStatus status,
+                             Long rowCount, Long bytes, Long durationMs, String error,
+                             Instant createdAt, Instant finishedAt, Instant expiresAt, String downloadUrl) {
+        this.id = id;
+        this.kind = kind;
+        this.format = format;
+        this.status = status;
+        this.rowCount = rowCount;
+        this.bytes = bytes;
+        this.durationMs = durationMs;
+        this.error = error;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+        this.expiresAt = expiresAt;
+        this.downloadUrl = downloadUrl;
+    }
+
+    public UUID getId() { return id; }
+    public ExportKind getKind() { return kind; }
+    public ExportFormat getFormat() { return format; }
+    public ExportJobStatus getStatus() { return status; }
+    public Long getRowCount() { return rowCount; }
+    public Long getBytes() { return bytes; }
+    public Long getDurationMs() { return durationMs; }
+    public String getError() { return error; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public String getDownloadUrl() { return downloadUrl; }
+}
@@ -7,11 +7,13 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 
 @Entity
 @Table(name = "donation")
+@IdClass(DonationKey.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -49,7 +51,13 @@ public class Donation {
     @Column(name = "stripe_payment_intent_id")
     private String stripePaymentIntentId;
 
-    @Column(name = "created_at", nullable = false)
+    // dons hors ligne importés : n° de chèque / virement
+    @Column(name = "external_ref", length = 100, updatable = false)
+    private String externalRef;
+
+    // clé de partition (V11), dans la clé primaire : les SELECT / UPDATE d'Hibernate ne lisent qu'une partition
+    @Id
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
@@ -57,9 +65,8 @@ public class Donation {
 
     @PrePersist
     void onCreate() {
-        var now = Instant.now();
-        createdAt = now;
-        updatedAt = now;
+        if (createdAt == null) createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS); // précision de timestamptz
+        updatedAt = createdAt;
     }
 
     @PreUpdate
@@ -0,0 +1,17 @@
+package com.yassine.donationplatform.entity.donation;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/** Clé primaire de donation partitionnée (V11) : (id, created_at). */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DonationKey implements Serializable {
+    private UUID id;
+    private Instant createdAt;
+}
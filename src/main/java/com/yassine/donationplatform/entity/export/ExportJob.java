@@ -0,0 +1,76 @@
+package com.yassine.donationplatform.entity.export;
+
+import com.yassine.donationplatform.dto.ExportFormat;
+import com.yassine.donationplatform.dto.ExportJobStatus;
+import com.yassine.donationplatform.dto.ExportKind;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "export_job")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJob {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ExportKind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ExportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ExportJobStatus status;
+
+    @Column(name = "filter_from")
+    private LocalDate filterFrom;
+
+    @Column(name = "filter_to")
+    private LocalDate filterTo;
+
+    @Column(name = "filter_status", length = 20)
+    private String filterStatus;
+
+    @Column(name = "file_path", columnDefinition = "text")
+    private String filePath;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    private Long bytes;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(columnDefinition = "text")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @PrePersist
+    void onCreate() {
+        if (id == null) id = UUID.randomUUID();
+        if (createdAt == null) createdAt = Instant.now();
+    }
+}
@@ -24,6 +24,10 @@ public class TaxReceipt {
     @Column(name = "donation_id", nullable = false, updatable = false)
     private UUID donationId;
 
+    // clé de partition de donation : la FK porte sur (donation_id, donation_created_at)
+    @Column(name = "donation_created_at", nullable = false, updatable = false)
+    private Instant donationCreatedAt;
+
     @Column(name = "receipt_number", nullable = false, insertable = false, updatable = false)
     private Long receiptNumber;
 
@@ -0,0 +1,49 @@
+package com.yassine.donationplatform.entity.stats;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Agrégat journalier maintenu par trigger (voir V6__donation_daily_rollup.sql) :
+ * lecture seule côté application.
+ */
+@Entity
+@Table(name = "donation_daily_rollup")
+@IdClass(DonationDailyRollupId.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationDailyRollup {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DonationStatus status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private PaymentMethod paymentMethod;
+
+    @Id
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "donation_count", nullable = false)
+    private long donationCount;
+
+    @Column(name = "amount_cents_sum", nullable = false)
+    private long amountCentsSum;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
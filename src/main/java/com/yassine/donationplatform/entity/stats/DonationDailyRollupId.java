@@ -0,0 +1,19 @@
+package com.yassine.donationplatform.entity.stats;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DonationDailyRollupId implements Serializable {
+    private LocalDate day;
+    private DonationStatus status;
+    private PaymentMethod paymentMethod;
+    private String currency;
+}
@@ -0,0 +1,237 @@
+package com.yassine.donationplatform.observability;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource exposé à Hibernate et au JdbcTemplate : chaque exécution JDBC (execute*, batch, COPY via
+ * unwrap(PGConnection)) compte comme une requête dans {@link SqlStatementCounter}, avec ses lignes lues
+ * (ResultSet.next) ou écrites (update count, endCopy), et son temps compte en "db" dans
+ * {@link RequestTimings} : exécution, itération du ResultSet (getResultStream des listes admin),
+ * prise de connexion et commit.
+ * <p>
+ * Capture et timings sont ceux du thread à la création de la requête (la connexion, elle, a pu être prise
+ * avant, par une transaction de test) : hors des deux (jobs, export), ni le Statement ni le ResultSet ne
+ * sont enveloppés.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    public InstrumentedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private static Connection instrument(Connection con) {
+        return proxy(Connection.class, new ConnectionHandler(con));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+        final Object target;
+        final SqlStatementCounter.Capture capture; // null : pas de comptage
+        final RequestTimings timings;              // null : pas de mesure
+
+        Handler(Object target, SqlStatementCounter.Capture capture, RequestTimings timings) {
+            this.target = target;
+            this.capture = capture;
+            this.timings = timings;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handle(method, args);
+            };
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object proceed(Method method, Object[] args) throws Throwable {
+            return invokeTimed(target, null, method, args, 0);
+        }
+
+        Object timed(Method method, Object[] args, int count) throws Throwable {
+            return invokeTimed(target, timings, method, args, count);
+        }
+    }
+
+    /** count : 1 pour une requête, 0 pour du temps rattaché (itération, commit, prise de connexion). */
+    private static Object invokeTimed(Object target, RequestTimings timings, Method method, Object[] args, int count)
+            throws Throwable {
+        long start = timings == null ? 0 : System.nanoTime();
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (timings != null) timings.add(RequestTimings.DB, System.nanoTime() - start, count);
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection target) {
+            super(target, null, null);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            SqlStatementCounter.Capture capture = SqlStatementCounter.current();
+            RequestTimings timings = RequestTimings.current();
+            if (capture == null && timings == null) return proceed(method, args);
+
+            // LazyConnectionDataSourceProxy : la connexion du pool est prise au premier prepare
+            Object result = invokeTimed(target, timings, method, args, 0);
+            return switch (method.getName()) {
+                // type de retour : Statement, PreparedStatement ou CallableStatement
+                case "createStatement", "prepareStatement", "prepareCall" -> proxy(method.getReturnType(),
+                        new StatementHandler(result, method.getName().equals("createStatement") ? null : (String) args[0],
+                                capture, timings));
+                case "unwrap" -> args[0] == PGConnection.class
+                        ? proxy(PGConnection.class, new PgConnectionHandler(result, capture, timings)) : result;
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private String sql; // null pour un Statement simple : SQL passé à execute*
+        private String lastShape;
+
+        StatementHandler(Object target, String sql, SqlStatementCounter.Capture capture, RequestTimings timings) {
+            super(target, capture, timings);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && sql == null) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = proceed(method, args);
+                return name.equals("getResultSet") && result != null
+                        ? proxy(ResultSet.class, new ResultSetHandler(result, lastShape, capture, timings)) : result;
+            }
+
+            Object result = timed(method, args, 1);
+            if (capture != null) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                lastShape = capture.add(executed != null ? executed : "jdbc " + name);
+                countRows(result);
+            }
+            return result instanceof ResultSet
+                    ? proxy(ResultSet.class, new ResultSetHandler(result, lastShape, capture, timings)) : result;
+        }
+
+        private void countRows(Object result) throws SQLException {
+            switch (result) {
+                case Integer n -> capture.addRows(lastShape, n);
+                case Long n -> capture.addRows(lastShape, n);
+                case int[] counts -> {
+                    for (int n : counts) capture.addRows(lastShape, n);
+                }
+                case long[] counts -> {
+                    for (long n : counts) capture.addRows(lastShape, n);
+                }
+                case Boolean hasResultSet when !hasResultSet ->
+                        capture.addRows(lastShape, ((Statement) target).getUpdateCount());
+                default -> { }
+            }
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final String shape;
+
+        ResultSetHandler(Object target, String shape, SqlStatementCounter.Capture capture, RequestTimings timings) {
+            super(target, capture, timings);
+            this.shape = shape;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("next")) return proceed(method, args);
+
+            // next() va chercher le lot suivant (fetch size) quand le précédent est épuisé
+            Object result = timed(method, args, 0);
+            if (capture != null && shape != null && Boolean.TRUE.equals(result)) {
+                capture.addRows(shape, 1);
+            }
+            return result;
+        }
+    }
+
+    /** COPY de l'import : une requête au endCopy, avec le nombre de lignes copiées. */
+    private static final class PgConnectionHandler extends Handler {
+
+        PgConnectionHandler(Object target, SqlStatementCounter.Capture capture, RequestTimings timings) {
+            super(target, capture, timings);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getCopyAPI") && target instanceof BaseConnection base) {
+                return new InstrumentedCopyManager(base, capture, timings);
+            }
+            return proceed(method, args);
+        }
+    }
+
+    private static final class InstrumentedCopyManager extends CopyManager {
+        private final SqlStatementCounter.Capture capture;
+        private final RequestTimings timings;
+
+        InstrumentedCopyManager(BaseConnection connection, SqlStatementCounter.Capture capture,
+                                RequestTimings timings) throws SQLException {
+            super(connection);
+            this.capture = capture;
+            this.timings = timings;
+        }
+
+        @Override
+        public CopyIn copyIn(String sql) throws SQLException {
+            CopyIn copy = super.copyIn(sql);
+            return proxy(CopyIn.class, new Handler(copy, capture, timings) {
+                @Override
+                Object handle(Method method, Object[] args) throws Throwable {
+                    boolean end = method.getName().equals("endCopy");
+                    Object result = timed(method, args, end ? 1 : 0); // writeToCopy : envoi au serveur
+                    if (end && capture != null) {
+                        capture.addRows(capture.add(sql), (Long) result);
+                    }
+                    return result;
+                }
+            });
+        }
+    }
+}
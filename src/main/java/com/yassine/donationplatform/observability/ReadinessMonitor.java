@@ -0,0 +1,190 @@
+package com.yassine.donationplatform.observability;
+
+import com.yassine.donationplatform.service.stripe.StripeCircuitBreaker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Vérifications de readiness exécutées en tâche planifiée ; les sondes HTTP ne lisent que le dernier
+ * résultat (aucun accès DB / disque par sonde). Chaque changement d'état est publié en
+ * AvailabilityChangeEvent, donc aussi visible sur /actuator/health/readiness.
+ */
+@Component
+public class ReadinessMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadinessMonitor.class);
+
+    public record Check(boolean ok, String detail) {}
+
+    public record Snapshot(boolean ready, Map<String, Check> checks, Instant checkedAt) {}
+
+    private static final Snapshot STARTING = new Snapshot(false, Map.of(), null);
+
+    private final DataSource dataSource;
+    private final StripeCircuitBreaker stripeCircuit;
+    private final ApplicationEventPublisher events;
+
+    @Value("${app.health.db-timeout-seconds:2}")
+    private int dbTimeoutSeconds;
+
+    @Value("${app.health.max-pending-connections:5}")
+    private int maxPendingConnections;
+
+    @Value("${app.health.min-free-disk-mb:200}")
+    private long minFreeDiskMb;
+
+    @Value("${app.health.stripe-circuit-affects-readiness:true}")
+    private boolean stripeCircuitAffectsReadiness;
+
+    @Value("${app.receipt.storage-dir:./storage/receipts}")
+    private String receiptDir;
+
+    @Value("${app.export.storage-dir:./storage/exports}")
+    private String exportDir;
+
+    private volatile Snapshot snapshot = STARTING;
+    private volatile boolean started;
+    private volatile boolean draining;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public ReadinessMonitor(DataSource dataSource, StripeCircuitBreaker stripeCircuit, ApplicationEventPublisher events) {
+        this.dataSource = dataSource;
+        this.stripeCircuit = stripeCircuit;
+        this.events = events;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    // Spring publie ACCEPTING_TRAFFIC à ApplicationReadyEvent : on ne prend la main qu'après
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        started = true;
+        refresh();
+    }
+
+    /** Arrêt en cours : NOT READY définitivement, les vérifications planifiées ne peuvent plus le lever. */
+    public void markDraining() {
+        refreshLock.lock();
+        try {
+            draining = true;
+            Map<String, Check> checks = new LinkedHashMap<>(snapshot.checks());
+            checks.put("shutdown", new Check(false, "draining"));
+            snapshot = new Snapshot(false, Collections.unmodifiableMap(checks), Instant.now());
+        } finally {
+            refreshLock.unlock();
+        }
+        log.info("Readiness -> REFUSING_TRAFFIC (shutdown)");
+        AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    @Scheduled(fixedDelayString = "${app.health.check-interval-ms:5000}",
+            initialDelayString = "${app.health.check-interval-ms:5000}")
+    public void refresh() {
+        if (!started || !refreshLock.tryLock()) return;
+        try {
+            if (!draining) doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void doRefresh() {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        HikariPoolMXBean pool = hikariPool();
+
+        checks.put("pool", checkPool(pool));
+        checks.put("db", checkDb(pool));
+        checks.put("receiptStorage", checkStorage(receiptDir));
+        checks.put("exportStorage", checkStorage(exportDir));
+
+        StripeCircuitBreaker.State circuit = stripeCircuit.state();
+        boolean circuitOk = circuit != StripeCircuitBreaker.State.OPEN || !stripeCircuitAffectsReadiness;
+        checks.put("stripeCircuit", new Check(circuitOk, circuit.name()));
+
+        boolean ready = checks.values().stream().allMatch(Check::ok);
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(ready, Collections.unmodifiableMap(checks), Instant.now());
+
+        if (previous == STARTING || previous.ready() != ready) {
+            if (!ready) {
+                log.warn("Readiness -> REFUSING_TRAFFIC {}", checks);
+            } else if (previous != STARTING) {
+                log.info("Readiness -> ACCEPTING_TRAFFIC");
+            }
+            AvailabilityChangeEvent.publish(events, this,
+                    ready ? ReadinessState.ACCEPTING_TRAFFIC : ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private Check checkPool(HikariPoolMXBean pool) {
+        if (pool == null) {
+            return new Check(true, "n/a");
+        }
+        int pending = pool.getThreadsAwaitingConnection();
+        String detail = "active=" + pool.getActiveConnections()
+                + " idle=" + pool.getIdleConnections()
+                + " pending=" + pending;
+        return new Check(pending <= maxPendingConnections, detail);
+    }
+
+    private Check checkDb(HikariPoolMXBean pool) {
+        // pool à sec : emprunter une connexion bloquerait la tâche jusqu'au connectionTimeout,
+        // c'est la vérification "pool" qui tranche
+        if (pool != null && pool.getIdleConnections() == 0 && pool.getThreadsAwaitingConnection() > 0) {
+            return new Check(true, "skipped (pool busy)");
+        }
+        try (Connection c = dataSource.getConnection()) {
+            return c.isValid(dbTimeoutSeconds) ? new Check(true, "ok") : new Check(false, "invalid connection");
+        } catch (Exception e) {
+            return new Check(false, e.getClass().getSimpleName());
+        }
+    }
+
+    private Check checkStorage(String storageDir) {
+        try {
+            Path dir = Paths.get(storageDir).toAbsolutePath().normalize();
+            Files.createDirectories(dir);
+            if (!Files.isWritable(dir)) {
+                return new Check(false, "not writable");
+            }
+            long freeMb = Files.getFileStore(dir).getUsableSpace() / (1024 * 1024);
+            return new Check(freeMb >= minFreeDiskMb, "free=" + freeMb + "MB");
+        } catch (IOException | RuntimeException e) {
+            return new Check(false, e.getClass().getSimpleName());
+        }
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean()
+                    : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.yassine.donationplatform.observability;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collecteur de temps par requête (ThreadLocal), alimenté par {@link ServerTimingFilter}.
+ * Hors requête échantillonnée, {@link #start} renvoie un span partagé qui ne fait rien :
+ * ni allocation ni appel à nanoTime.
+ */
+public final class RequestTimings {
+
+    public static final String DB = "db";
+    public static final String STRIPE = "stripe";
+    public static final String PDF = "pdf";
+    public static final String SMTP = "smtp";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private static final Span NOOP = () -> {};
+
+    /** À fermer en try-with-resources. */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public record Entry(long nanos, int count) {}
+
+    private final Map<String, long[]> totals = new LinkedHashMap<>(); // [nanos, count]
+    private final long startNanos = System.nanoTime();
+
+    private RequestTimings() {}
+
+    public static Span start(String metric) {
+        RequestTimings t = CURRENT.get();
+        if (t == null) return NOOP;
+
+        long start = System.nanoTime();
+        return () -> t.add(metric, System.nanoTime() - start, 1);
+    }
+
+    static RequestTimings begin() {
+        RequestTimings t = new RequestTimings();
+        CURRENT.set(t);
+        return t;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** null hors requête échantillonnée. */
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    Map<String, Entry> entries() {
+        Map<String, Entry> out = new LinkedHashMap<>();
+        totals.forEach((k, v) -> out.put(k, new Entry(v[0], (int) v[1])));
+        return out;
+    }
+
+    /** count 0 : temps ajouté à une opération déjà comptée (itération d'un ResultSet). */
+    void add(String metric, long nanos, int count) {
+        long[] v = totals.computeIfAbsent(metric, k -> new long[2]);
+        v[0] += nanos;
+        v[1] += count;
+    }
+}
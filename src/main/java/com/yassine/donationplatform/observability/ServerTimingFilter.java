@@ -0,0 +1,151 @@
+package com.yassine.donationplatform.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * En-tête {@code Server-Timing} (db, stripe, pdf, smtp, total) : toujours sur /api/admin/**,
+ * sur une fraction échantillonnée des requêtes publiques. L'en-tête part au premier octet du corps :
+ * pour une réponse en streaming il couvre ce qui précède l'écriture, la ligne de log couvre tout.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean enabled;
+    private final double publicSampleRate;
+    private final double logSampleRate;
+
+    public ServerTimingFilter(
+            @Value("${app.timing.enabled:true}") boolean enabled,
+            @Value("${app.timing.public-sample-rate:0.01}") double publicSampleRate,
+            @Value("${app.timing.log-sample-rate:0.1}") double logSampleRate
+    ) {
+        this.enabled = enabled;
+        this.publicSampleRate = publicSampleRate;
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) return true;
+        String path = request.getServletPath();
+        if (path.startsWith("/api/admin/")) return false;
+        return !path.startsWith("/api/") || ThreadLocalRandom.current().nextDouble() >= publicSampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse wrapped = new TimingResponse(response, timings);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            wrapped.writeHeader();
+            RequestTimings.end();
+            if (ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                logLine(request, response.getStatus(), timings);
+            }
+        }
+    }
+
+    static String headerValue(RequestTimings timings) {
+        StringBuilder sb = new StringBuilder(96);
+        timings.entries().forEach((name, e) -> sb.append(name)
+                .append(";dur=").append(ms(e.nanos()))
+                .append(";desc=\"").append(e.count()).append("\", "));
+        return sb.append("total;dur=").append(ms(timings.elapsedNanos())).toString();
+    }
+
+    private static void logLine(HttpServletRequest request, int status, RequestTimings timings) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("timing method=").append(request.getMethod())
+                .append(" path=").append(request.getServletPath())
+                .append(" status=").append(status)
+                .append(" total_ms=").append(ms(timings.elapsedNanos()));
+        timings.entries().forEach((name, e) -> sb
+                .append(' ').append(name).append("_ms=").append(ms(e.nanos()))
+                .append(' ').append(name).append("_n=").append(e.count()));
+        log.info(sb.toString());
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /** Pose l'en-tête une seule fois, juste avant que la réponse puisse être commitée. */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void writeHeader() {
+            if (written) return;
+            written = true;
+            HttpServletResponse res = (HttpServletResponse) getResponse();
+            if (!res.isCommitted()) {
+                res.setHeader("Server-Timing", headerValue(timings));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
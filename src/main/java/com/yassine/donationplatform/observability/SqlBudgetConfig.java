@@ -0,0 +1,9 @@
+package com.yassine.donationplatform.observability;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProps.class)
+public class SqlBudgetConfig {
+}
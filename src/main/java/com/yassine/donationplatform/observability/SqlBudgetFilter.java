@@ -0,0 +1,79 @@
+package com.yassine.donationplatform.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Compte les requêtes SQL (et leurs lignes) de chaque appel /api/** et journalise celles qui dépassent le
+ * budget de leur endpoint, avec les formes SQL fautives ; signale aussi une même forme répétée (N+1 probable).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProps props;
+    private final MeterRegistry registry;
+
+    public SqlBudgetFilter(SqlBudgetProps props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !props.enabled() || !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Capture capture = SqlStatementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.end();
+            check(endpoint(request), capture);
+        }
+    }
+
+    private void check(String endpoint, SqlStatementCounter.Capture capture) {
+        int budget = props.budgetFor(endpoint);
+        if (capture.total() > budget) {
+            registry.counter("sql.budget.exceeded", "endpoint", endpoint).increment();
+            log.warn("SQL budget exceeded endpoint=\"{}\" statements={} rows={} budget={} shapes={}",
+                    endpoint, capture.total(), capture.rows(), budget, format(capture));
+        }
+
+        capture.shapes().forEach((shape, n) -> {
+            if (n >= props.repeatedShapeThreshold()) {
+                log.warn("Possible N+1 endpoint=\"{}\" repeated={} sql=\"{}\"", endpoint, n, shape);
+            }
+        });
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getServletPath());
+    }
+
+    private static String format(SqlStatementCounter.Capture capture) {
+        StringBuilder sb = new StringBuilder();
+        capture.shapes().forEach((shape, n) -> sb.append("\n  ").append(n).append("x ")
+                .append(capture.shapeRows().get(shape)).append(" rows ").append(shape));
+        return sb.toString();
+    }
+}
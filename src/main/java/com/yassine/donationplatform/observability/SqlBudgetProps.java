@@ -0,0 +1,28 @@
+package com.yassine.donationplatform.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Budgets de requêtes SQL par endpoint, clé "MÉTHODE /pattern" telle que mappée par Spring MVC, ex. :
+ * {@code app.sql-budget.endpoints[POST /api/receipts/request]=8}. Les autres endpoints utilisent defaultBudget.
+ */
+@ConfigurationProperties(prefix = "app.sql-budget")
+public record SqlBudgetProps(
+        Boolean enabled,
+        Integer defaultBudget,
+        Integer repeatedShapeThreshold,
+        Map<String, Integer> endpoints
+) {
+    public SqlBudgetProps {
+        if (enabled == null) enabled = true;
+        if (defaultBudget == null) defaultBudget = 20;
+        if (repeatedShapeThreshold == null) repeatedShapeThreshold = 5;
+        if (endpoints == null) endpoints = Map.of();
+    }
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,95 @@
+package com.yassine.donationplatform.observability;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compte les requêtes SQL exécutées pendant la requête HTTP courante (ou pendant une capture de test),
+ * par forme de SQL, avec les lignes lues (ResultSet) ou écrites (update count, COPY). Alimenté au niveau
+ * JDBC par {@link InstrumentedDataSource} : Hibernate, JdbcTemplate, ConnectionCallback et COPY confondus.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Capture> CURRENT = new ThreadLocal<>();
+
+    /** Requêtes d'une capture, par forme (SQL normalisé), dans l'ordre d'apparition. */
+    public static final class Capture {
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private final Map<String, Long> shapeRows = new LinkedHashMap<>();
+        private final List<String> statements; // SQL complet, seulement pour les tests (beginWithSql)
+        private int total;
+        private long rows;
+
+        private Capture(boolean keepSql) {
+            this.statements = keepSql ? new ArrayList<>() : null;
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public Map<String, Integer> shapes() {
+            return shapes;
+        }
+
+        /** Lignes par forme, mêmes clés que {@link #shapes()}. */
+        public Map<String, Long> shapeRows() {
+            return shapeRows;
+        }
+
+        public List<String> statements() {
+            return statements == null ? List.of() : statements;
+        }
+
+        /** Renvoie la forme, clé des lignes comptées ensuite par {@link #addRows}. */
+        String add(String sql) {
+            String shape = shape(sql);
+            total++;
+            shapes.merge(shape, 1, Integer::sum);
+            shapeRows.putIfAbsent(shape, 0L);
+            if (statements != null) statements.add(sql);
+            return shape;
+        }
+
+        void addRows(String shape, long n) {
+            if (n <= 0) return;
+            rows += n;
+            shapeRows.merge(shape, n, Long::sum);
+        }
+    }
+
+    private SqlStatementCounter() {}
+
+    static Capture current() {
+        return CURRENT.get();
+    }
+
+    public static Capture begin() {
+        return begin(false);
+    }
+
+    public static Capture beginWithSql() {
+        return begin(true);
+    }
+
+    private static Capture begin(boolean keepSql) {
+        Capture c = new Capture(keepSql);
+        CURRENT.set(c);
+        return c;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static String shape(String sql) {
+        String s = sql.replaceAll("\\s+", " ").trim();
+        return s.length() > 240 ? s.substring(0, 240) + "…" : s;
+    }
+}
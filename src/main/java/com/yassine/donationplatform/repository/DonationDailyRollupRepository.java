@@ -0,0 +1,30 @@
+package com.yassine.donationplatform.repository;
+
+import com.yassine.donationplatform.entity.stats.DonationDailyRollup;
+import com.yassine.donationplatform.entity.stats.DonationDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface DonationDailyRollupRepository
+        extends JpaRepository<DonationDailyRollup, DonationDailyRollupId>, JpaSpecificationExecutor<DonationDailyRollup> {
+
+    // bloque les écritures sur donation le temps du rebuild (les triggers attendent)
+    @Modifying
+    @Query(value = "lock table donation in share mode", nativeQuery = true)
+    void lockDonationsForRebuild();
+
+    @Modifying
+    @Query(value = "delete from donation_daily_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            insert into donation_daily_rollup(day, status, payment_method, currency, donation_count, amount_cents_sum)
+            select (created_at at time zone 'UTC')::date, status, payment_method, currency, count(*), sum(amount_cents)
+            from donation
+            group by 1, 2, 3, 4
+            """, nativeQuery = true)
+    int insertFromDonations();
+}
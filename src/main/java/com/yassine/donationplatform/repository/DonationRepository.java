@@ -1,12 +1,27 @@
 package com.yassine.donationplatform.repository;
 
 import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.entity.donation.DonationKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface DonationRepository extends JpaRepository<Donation, UUID>, JpaSpecificationExecutor<Donation> {
+public interface DonationRepository extends JpaRepository<Donation, DonationKey>, JpaSpecificationExecutor<Donation> {
     Optional<Donation> findByStripeCheckoutSessionId(String sessionId);
+
+    // readOnly comme findById hérité de SimpleJpaRepository : routage vers le réplica (@ReplicaRead)
+    /** created_at borné : seules les partitions couvrant [from, to) sont lues. */
+    @Transactional(readOnly = true)
+    @Query("select d from Donation d where d.id = :id and d.createdAt >= :from and d.createdAt < :to")
+    Optional<Donation> findByIdCreatedBetween(UUID id, Instant from, Instant to);
+
+    /** Id seul : l'index de clé primaire de chaque partition est sondé. */
+    @Transactional(readOnly = true)
+    @Query("select d from Donation d where d.id = :id")
+    Optional<Donation> findByIdInAnyPartition(UUID id);
 }
@@ -0,0 +1,46 @@
+package com.yassine.donationplatform.repository;
+
+import com.yassine.donationplatform.dto.ExportJobStatus;
+import com.yassine.donationplatform.entity.export.ExportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ExportJobRepository extends JpaRepository<ExportJob, UUID> {
+    List<ExportJob> findByStatusInAndExpiresAtBefore(Collection<ExportJobStatus> statuses, Instant now);
+
+    List<ExportJob> findByStatusOrderByCreatedAtAsc(ExportJobStatus status);
+
+    /** QUEUED -> RUNNING ; 0 si un autre worker (ou une autre instance) l'a déjà pris. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update export_job set status = 'RUNNING', started_at = :now
+            where id = :id and status = 'QUEUED'
+            """, nativeQuery = true)
+    int claim(UUID id, Instant now);
+
+    /** Remet en file des jobs interrompus (arrêt de l'instance avant la fin de l'export). */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update export_job set status = 'QUEUED', started_at = null
+            where id in (:ids) and status = 'RUNNING'
+            """, nativeQuery = true)
+    int requeue(Collection<UUID> ids);
+
+    /** Jobs RUNNING depuis trop longtemps : instance tuée sans arrêt propre. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update export_job set status = 'QUEUED', started_at = null
+            where status = 'RUNNING' and started_at < :startedBefore
+            """, nativeQuery = true)
+    int requeueStale(Instant startedBefore);
+}
@@ -2,6 +2,9 @@ package com.yassine.donationplatform.repository;
 
 import com.yassine.donationplatform.entity.auth.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -10,5 +13,55 @@ import java.util.UUID;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     Optional<RefreshToken> findByTokenHash(String tokenHash);
     long deleteByUserId(UUID userId);
-    long deleteByExpiresAtBefore(Instant now);
+
+    interface Rotated {
+        UUID getUserId();
+        String getEmail();
+    }
+
+    /**
+     * Rotation en un aller-retour : révoque l'ancien token (revoked_at + replaced_by), insère le
+     * nouveau et renvoie l'utilisateur. Vide si l'ancien est inconnu, expiré ou déjà révoqué :
+     * le verrou de ligne de l'update garantit qu'un token ne tourne qu'une fois.
+     */
+    @Query(value = """
+            with old as (
+                update refresh_token
+                set revoked_at = :now, replaced_by = :newId
+                where token_hash = :oldHash and revoked_at is null and expires_at > :now
+                returning user_id
+            ), ins as (
+                insert into refresh_token (id, user_id, token_hash, created_at, expires_at, user_agent, ip)
+                select :newId, old.user_id, :newHash, :now, :expiresAt, :userAgent, :ip from old
+                returning user_id
+            )
+            select u.id as userId, u.email as email
+            from ins join users u on u.id = ins.user_id
+            """, nativeQuery = true)
+    Optional<Rotated> rotate(String oldHash, UUID newId, String newHash, Instant now, Instant expiresAt,
+                             String userAgent, String ip);
+
+    /**
+     * Supprime au plus {@code batchSize} tokens expirés ou révoqués depuis longtemps, dans sa propre
+     * transaction. SKIP LOCKED : plusieurs nœuds peuvent purger en parallèle sans s'attendre.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from refresh_token
+            where id in (
+                select id from refresh_token
+                where expires_at < :now or revoked_at < :revokedBefore
+                limit :batchSize
+                for update skip locked
+            )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(Instant now, Instant revokedBefore, int batchSize);
+
+    @Query(value = "select pg_total_relation_size('refresh_token')", nativeQuery = true)
+    long tableSizeBytes();
+
+    // estimation planner (pas de count(*) sur une grosse table)
+    @Query(value = "select greatest(reltuples, 0)::bigint from pg_class where oid = 'refresh_token'::regclass", nativeQuery = true)
+    long estimatedRowCount();
 }
@@ -3,11 +3,27 @@ package com.yassine.donationplatform.repository;
 import com.yassine.donationplatform.entity.receipt.TaxReceipt;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TaxReceiptRepository extends JpaRepository<TaxReceipt, UUID>, JpaSpecificationExecutor<TaxReceipt> {
     Optional<TaxReceipt> findByDonationId(UUID donationId);
     boolean existsByDonationId(UUID donationId);
+
+    /**
+     * Reçus restés REQUESTED (génération interrompue) : passés en FAILED, donc renvoyables depuis l'admin.
+     * Une demande en cours tient le verrou de ligne : l'update l'attend puis ne la touche plus.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update tax_receipt set status = 'FAILED'
+            where status = 'REQUESTED' and requested_at < :requestedBefore
+            """, nativeQuery = true)
+    int failStuckRequested(Instant requestedBefore);
 }
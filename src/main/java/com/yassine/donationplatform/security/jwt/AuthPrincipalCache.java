@@ -0,0 +1,114 @@
+package com.yassine.donationplatform.security.jwt;
+
+import com.yassine.donationplatform.dto.AuthUser;
+import com.yassine.donationplatform.service.cache.CacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné (TTL court) des principals admin déjà validés par JwtAuthFilter,
+ * pour éviter un findById à chaque requête admin.
+ */
+@Component
+public class AuthPrincipalCache {
+
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    private record Entry(AuthUser principal, long expiresAtNanos) {}
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final CacheInvalidationBus bus;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AuthPrincipalCache(
+            @Value("${app.auth.principal-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.auth.principal-cache.max-size:1000}") int maxSize,
+            CacheInvalidationBus bus
+    ) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxSize = maxSize;
+        this.bus = bus;
+        bus.subscribe(CacheInvalidationBus.TOPIC_USER, key -> evict(UUID.fromString(key)), this::invalidateAll);
+    }
+
+    public AuthUser get(UUID userId) {
+        if (ttlNanos <= 0) {
+            misses.increment();
+            return null;
+        }
+
+        Entry e = entries.get(userId);
+        if (e != null && e.expiresAtNanos() - System.nanoTime() > 0) {
+            hits.increment();
+            return e.principal();
+        }
+        if (e != null) {
+            entries.remove(userId, e);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(AuthUser principal) {
+        if (ttlNanos <= 0) return;
+
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) return; // plein de principals valides : on ne cache pas
+        }
+        entries.put(principal.id(), new Entry(principal, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Invalide tout de suite et, si une transaction est en cours, une seconde fois après commit
+     * (une requête concurrente a pu remettre en cache l'état d'avant le commit). Les autres
+     * instances sont prévenues au commit via le bus.
+     */
+    public void invalidate(UUID userId) {
+        evict(userId);
+        bus.publish(CacheInvalidationBus.TOPIC_USER, userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void evict(UUID userId) {
+        if (entries.remove(userId) != null) evictions.increment();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAtNanos() - now <= 0;
+            if (expired) evictions.increment();
+            return expired;
+        });
+    }
+}
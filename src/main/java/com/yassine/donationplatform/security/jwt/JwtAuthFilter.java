@@ -6,6 +6,8 @@ import com.yassine.donationplatform.dto.AuthUser;
 import com.yassine.donationplatform.entity.auth.User;
 import com.yassine.donationplatform.repository.UserRepository;
 import com.yassine.donationplatform.service.auth.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,11 +29,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final AdminProps adminProps;
+    private final AuthPrincipalCache principalCache;
+    private final MeterRegistry registry;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository, AdminProps adminProps) {
+    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository, AdminProps adminProps,
+                         AuthPrincipalCache principalCache, MeterRegistry registry) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
         this.adminProps = adminProps;
+        this.principalCache = principalCache;
+        this.registry = registry;
     }
 
     @Override
@@ -52,40 +59,54 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
 
-        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (header == null || !header.startsWith("Bearer ")) {
+        // mesure l'authentification seule, pas le reste de la chaîne
+        Timer.Sample sample = Timer.start(registry);
+        AuthUser principal = authenticate(request);
+        sample.stop(registry.timer("auth.jwt.filter", "outcome", principal == null ? "rejected" : "authenticated"));
+
+        if (principal == null) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            var auth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private AuthUser authenticate(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+
         String token = header.substring(7);
 
         final UUID userId;
         try {
             userId = jwtService.parseUserId(token);
         } catch (Exception e) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
+            return null;
         }
 
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
-        }
+        AuthUser principal = principalCache.get(userId);
+        if (principal == null) {
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null) {
+                return null;
+            }
 
-        if (!user.getEmail().equalsIgnoreCase(adminProps.email())) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
-        }
+            if (!user.getEmail().equalsIgnoreCase(adminProps.email())) {
+                return null;
+            }
 
-        if (SecurityContextHolder.getContext().getAuthentication() == null) {
-            AuthUser principal = new AuthUser(user.getId(), user.getEmail());
-            var auth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            principal = new AuthUser(user.getId(), user.getEmail());
+            principalCache.put(principal);
         }
-
-        chain.doFilter(request, response);
+        return principal;
     }
 }
@@ -6,11 +6,26 @@ import com.yassine.donationplatform.entity.settings.AppSettings;
 import com.yassine.donationplatform.dto.request.UpdateSettingsRequest;
 import com.yassine.donationplatform.dto.response.SettingsResponse;
 import com.yassine.donationplatform.repository.AppSettingsRepository;
+import com.yassine.donationplatform.service.cache.CacheInvalidationBus;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class SettingsService {
@@ -19,10 +34,68 @@ public class SettingsService {
 
     private final AppSettingsRepository repo;
     private final ObjectMapper objectMapper;
+    private final JsonMapper jsonMapper;
+    private final AtomicReference<PublicUiSnapshot> snapshot = new AtomicReference<>();
+    // verrou plutôt que synchronized : le rechargement lit la DB (pas d'épinglage de thread virtuel)
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final CacheInvalidationBus bus;
 
-    public SettingsService(AppSettingsRepository repo, ObjectMapper objectMapper) {
+    private final long compressionMinBytes;
+
+    public SettingsService(AppSettingsRepository repo, ObjectMapper objectMapper, JsonMapper jsonMapper,
+                           CacheInvalidationBus bus,
+                           @Value("${server.compression.min-response-size:2KB}") DataSize compressionMinSize) {
         this.repo = repo;
+        this.compressionMinBytes = compressionMinSize.toBytes();
         this.objectMapper = objectMapper;
+        this.jsonMapper = jsonMapper;
+        this.bus = bus;
+        bus.subscribe(CacheInvalidationBus.TOPIC_SETTINGS, key -> evictPublicUiSnapshot(), this::evictPublicUiSnapshot);
+    }
+
+    /**
+     * Réponse publique pré-sérialisée (octets UTF-8) + ETag fort, immuable. Variante gzip
+     * précompressée si le corps dépasse le seuil de compression (sinon null).
+     */
+    public record PublicUiSnapshot(byte[] body, String etag, byte[] gzipBody, String gzipEtag) {}
+
+    /**
+     * Sert /api/settings sans accès DB : chargé une fois, puis remplacé après commit de
+     * {@link #updatePublicUi}.
+     */
+    public PublicUiSnapshot publicUiSnapshot() {
+        PublicUiSnapshot snap = snapshot.get();
+        if (snap == null) {
+            snap = reloadPublicUiSnapshot();
+        }
+        return snap;
+    }
+
+    /** Rechargé depuis la DB à la prochaine lecture. */
+    public void evictPublicUiSnapshot() {
+        snapshotLock.lock();
+        try {
+            snapshot.set(null);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Même verrou que evict et que l'installation après commit : un rechargement qui a lu l'ancienne ligne
+    // pose son snapshot avant que celui du commit ne passe (jamais après), ou voit ce dernier et le renvoie.
+    private PublicUiSnapshot reloadPublicUiSnapshot() {
+        snapshotLock.lock();
+        try {
+            PublicUiSnapshot current = snapshot.get();
+            if (current != null) return current;
+
+            PublicUiSnapshot snap = toSnapshot(getPublicUi());
+            snapshot.set(snap);
+            return snap;
+        } finally {
+            snapshotLock.unlock();
+        }
     }
 
     public SettingsResponse getPublicUi() {
@@ -96,12 +169,62 @@ public class SettingsService {
             row.setSettingsJson(jsonStr);
             repo.save(row);
 
-            return new SettingsResponse(req.getTitle(),  cleaned);
+            SettingsResponse response = new SettingsResponse(req.getTitle(),  cleaned);
+            swapSnapshotAfterCommit(toSnapshot(response));
+            bus.publish(CacheInvalidationBus.TOPIC_SETTINGS, KEY_PUBLIC_UI);
+            return response;
         } catch (Exception e) {
             throw new RuntimeException("Failed to update settings", e);
         }
     }
 
+    private void swapSnapshotAfterCommit(PublicUiSnapshot next) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            installSnapshot(next);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                installSnapshot(next);
+            }
+        });
+    }
+
+    private void installSnapshot(PublicUiSnapshot next) {
+        snapshotLock.lock();
+        try {
+            snapshot.set(next);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private PublicUiSnapshot toSnapshot(SettingsResponse response) {
+        byte[] body = jsonMapper.writeValueAsBytes(response);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String tag = HexFormat.of().formatHex(digest, 0, 16);
+
+            if (body.length < compressionMinBytes) {
+                return new PublicUiSnapshot(body, "\"" + tag + "\"", null, null);
+            }
+            return new PublicUiSnapshot(body, "\"" + tag + "\"", gzip(body), "\"" + tag + "-gz\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
     private SettingsResponse defaultResponse() {
         return new SettingsResponse("Association Solidaire", List.of(10, 20, 50, 100));
     }
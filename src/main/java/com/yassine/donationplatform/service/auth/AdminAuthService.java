@@ -4,13 +4,13 @@ import com.yassine.donationplatform.dto.request.AdminChangePasswordRequest;
 import com.yassine.donationplatform.dto.request.AdminLoginRequest;
 import com.yassine.donationplatform.dto.response.AuthTokenResponse;
 import com.yassine.donationplatform.security.admin.AdminProps;
+import com.yassine.donationplatform.security.jwt.AuthPrincipalCache;
 import com.yassine.donationplatform.security.refresh.AuthCookieProps;
 import com.yassine.donationplatform.entity.auth.User;
 import com.yassine.donationplatform.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -25,29 +25,32 @@ public class AdminAuthService {
     public static final long ACCESS_TTL_SECONDS = 15 * 60; // 15 min
 
     private final UserRepository users;
-    private final PasswordEncoder encoder;
+    private final PasswordHashingService hashing;
     private final JwtService jwt;
     private final RefreshTokenService refreshTokens;
     private final AuthCookieProps cookieProps;
     private final AdminProps adminProps;
+    private final AuthPrincipalCache principalCache;
 
     public record AuthResult(AuthTokenResponse response, ResponseCookie refreshCookie) {}
 
     public AdminAuthService(UserRepository users,
-                            PasswordEncoder encoder,
+                            PasswordHashingService hashing,
                             JwtService jwt,
                             RefreshTokenService refreshTokens,
                             AuthCookieProps cookieProps,
-                            AdminProps adminProps) {
+                            AdminProps adminProps,
+                            AuthPrincipalCache principalCache) {
         this.users = users;
-        this.encoder = encoder;
+        this.hashing = hashing;
         this.jwt = jwt;
         this.refreshTokens = refreshTokens;
         this.cookieProps = cookieProps;
         this.adminProps = adminProps;
+        this.principalCache = principalCache;
     }
 
-    @Transactional(readOnly = true)
+    // pas de transaction englobante : aucune connexion JDBC n'est tenue pendant BCrypt
     public AuthResult login(AdminLoginRequest req, HttpServletRequest httpReq) {
         String email = normalizeEmail(req.email());
         String password = req.password() == null ? "" : req.password();
@@ -59,10 +62,16 @@ public class AdminAuthService {
         User user = users.findByEmail(email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials"));
 
-        if (!encoder.matches(password, user.getPasswordHash())) {
+        if (!hashing.matches(password, user.getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials");
         }
 
+        // rehash au coût calibré courant (hash ancien ou coût relevé)
+        if (hashing.needsUpgrade(user.getPasswordHash())) {
+            user.setPasswordHash(hashing.encode(password));
+            users.save(user);
+        }
+
         String access = jwt.generateToken(user.getId(), user.getEmail(), ACCESS_TTL_SECONDS);
         AuthTokenResponse payload = new AuthTokenResponse(access, ACCESS_TTL_SECONDS);
 
@@ -73,20 +82,17 @@ public class AdminAuthService {
         return new AuthResult(payload, cookie);
     }
 
-    @Transactional
+    // une seule requête SQL (RefreshTokenService.verifyAndRotate) : pas de transaction englobante
     public AuthResult refresh(String rawRefreshToken, HttpServletRequest httpReq) {
         boolean rememberMe = true;
         var rotated = refreshTokens.verifyAndRotate(rawRefreshToken, rememberMe, httpReq);
 
-        User user = users.findById(rotated.userId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
-
         // admin unique : protège aussi refresh
-        if (!user.getEmail().equalsIgnoreCase(adminProps.email())) {
+        if (!rotated.email().equalsIgnoreCase(adminProps.email())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not allowed");
         }
 
-        String access = jwt.generateToken(user.getId(), user.getEmail(), ACCESS_TTL_SECONDS);
+        String access = jwt.generateToken(rotated.userId(), rotated.email(), ACCESS_TTL_SECONDS);
         AuthTokenResponse payload = new AuthTokenResponse(access, ACCESS_TTL_SECONDS);
 
         ResponseCookie cookie = buildRefreshCookie(rotated.newRawToken(), rotated.newExpiresAt());
@@ -108,12 +114,13 @@ public class AdminAuthService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed");
         }
 
-        if (!encoder.matches(req.currentPassword(), user.getPasswordHash())) {
+        if (!hashing.matches(req.currentPassword(), user.getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid current password");
         }
 
-        user.setPasswordHash(encoder.encode(req.newPassword()));
+        user.setPasswordHash(hashing.encode(req.newPassword()));
         users.save(user);
+        principalCache.invalidate(user.getId());
 
         refreshTokens.revokeAllForUser(user.getId());
 
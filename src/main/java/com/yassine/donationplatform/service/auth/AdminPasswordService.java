@@ -1,11 +1,11 @@
 package com.yassine.donationplatform.service.auth;
 
 import com.yassine.donationplatform.security.admin.AdminProps;
+import com.yassine.donationplatform.security.jwt.AuthPrincipalCache;
 import com.yassine.donationplatform.entity.auth.User;
 import com.yassine.donationplatform.repository.UserRepository;
 import com.yassine.donationplatform.dto.AuthUser;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -14,13 +14,16 @@ import org.springframework.web.server.ResponseStatusException;
 public class AdminPasswordService {
 
     private final UserRepository users;
-    private final PasswordEncoder encoder;
+    private final PasswordHashingService hashing;
     private final AdminProps adminProps;
+    private final AuthPrincipalCache principalCache;
 
-    public AdminPasswordService(UserRepository users, PasswordEncoder encoder, AdminProps adminProps) {
+    public AdminPasswordService(UserRepository users, PasswordHashingService hashing, AdminProps adminProps,
+                                AuthPrincipalCache principalCache) {
         this.users = users;
-        this.encoder = encoder;
+        this.hashing = hashing;
         this.adminProps = adminProps;
+        this.principalCache = principalCache;
     }
 
     @Transactional
@@ -39,12 +42,13 @@ public class AdminPasswordService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password too short (min 10)");
         }
 
-        if (!encoder.matches(currentPassword, u.getPasswordHash())) {
+        if (!hashing.matches(currentPassword, u.getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials");
         }
 
-        u.setPasswordHash(encoder.encode(newPassword));
+        u.setPasswordHash(hashing.encode(newPassword));
         users.save(u);
+        principalCache.invalidate(u.getId());
     }
 
     @Transactional
@@ -73,8 +77,9 @@ public class AdminPasswordService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password too short (min 10)");
         }
 
-        u.setPasswordHash(encoder.encode(newPass));
+        u.setPasswordHash(hashing.encode(newPass));
         users.save(u);
+        principalCache.invalidate(u.getId());
     }
 
     private static boolean isBlank(String s) {
@@ -1,32 +1,55 @@
 package com.yassine.donationplatform.service.auth;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class JwtService {
 
+    public record CacheStats(long hits, long misses, int size) {}
+
+    private record Verified(UUID userId, long expiresAtMillis) {}
+
     private final SecretKey key;
+    private final JwtParser parser; // immuable et thread-safe : construit une seule fois
+
+    // digest SHA-256 du token -> sujet + expiration déjà vérifiés (pas de token brut en mémoire)
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+    private final int cacheMaxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     @Value("${app.jwt.ttl-seconds:7200}")
     private long ttlSeconds;
     public long getTtlSeconds() { return ttlSeconds; }
 
 
-    public JwtService(@Value("${app.jwt.secret}") String secret) {
+    public JwtService(@Value("${app.jwt.secret}") String secret,
+                      @Value("${app.jwt.verified-cache.max-size:10000}") int cacheMaxSize) {
         byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
         if (bytes.length < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 256 bits (32 bytes).");
         }
         this.key = Keys.hmacShaKeyFor(bytes);
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.cacheMaxSize = cacheMaxSize;
     }
 
     public String generateToken(UUID userId, String email, long ttlSeconds) {
@@ -43,12 +66,48 @@ public class JwtService {
     }
 
     public UUID parseUserId(String token) {
-        String sub = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-        return UUID.fromString(sub);
+        if (cacheMaxSize <= 0) {
+            return UUID.fromString(parser.parseSignedClaims(token).getPayload().getSubject());
+        }
+
+        String digest = digest(token);
+        Verified v = verified.get(digest);
+        if (v != null) {
+            if (v.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.increment();
+                return v.userId();
+            }
+            verified.remove(digest, v); // expiré : le parse complet ci-dessous lèvera ExpiredJwtException
+        }
+        misses.increment();
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        UUID userId = UUID.fromString(claims.getSubject());
+
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            if (verified.size() >= cacheMaxSize) purgeExpired();
+            if (verified.size() < cacheMaxSize) verified.put(digest, new Verified(userId, exp.getTime()));
+        }
+        return userId;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.verified-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(v -> v.expiresAtMillis() <= now);
+    }
+
+    public CacheStats cacheStats() {
+        return new CacheStats(hits.sum(), misses.sum(), verified.size());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
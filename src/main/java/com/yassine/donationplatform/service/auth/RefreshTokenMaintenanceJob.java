@@ -0,0 +1,86 @@
+package com.yassine.donationplatform.service.auth;
+
+import com.yassine.donationplatform.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Purge planifiée de refresh_token : tokens expirés et tokens révoqués depuis plus de
+ * app.auth.refresh-cleanup.revoked-retention-days, par lots bornés avec pause entre les lots
+ * (verrous courts). Cron "-" pour désactiver.
+ */
+@Component
+public class RefreshTokenMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenMaintenanceJob.class);
+
+    public record CleanupReport(long removed, int batches, long tableRowsEstimate, long tableBytes, long durationMs) {}
+
+    private final RefreshTokenRepository repo;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatches;
+    private final Duration revokedRetention;
+
+    public RefreshTokenMaintenanceJob(
+            RefreshTokenRepository repo,
+            @Value("${app.auth.refresh-cleanup.batch-size:1000}") int batchSize,
+            @Value("${app.auth.refresh-cleanup.pause-ms:200}") long pauseMs,
+            @Value("${app.auth.refresh-cleanup.max-batches:500}") int maxBatches,
+            @Value("${app.auth.refresh-cleanup.revoked-retention-days:7}") long revokedRetentionDays
+    ) {
+        this.repo = repo;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatches = maxBatches;
+        this.revokedRetention = Duration.ofDays(revokedRetentionDays);
+    }
+
+    @Scheduled(cron = "${app.auth.refresh-cleanup.cron:0 17 3 * * *}")
+    public void scheduledCleanup() {
+        try {
+            cleanup();
+        } catch (Exception e) {
+            log.error("Refresh token cleanup failed", e);
+        }
+    }
+
+    public CleanupReport cleanup() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant revokedBefore = now.minus(revokedRetention);
+
+        long removed = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            int n = repo.deleteExpiredBatch(now, revokedBefore, batchSize);
+            removed += n;
+            batches++;
+            if (n < batchSize) break;
+
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        CleanupReport report = new CleanupReport(
+                removed,
+                batches,
+                repo.estimatedRowCount(),
+                repo.tableSizeBytes(),
+                (System.nanoTime() - start) / 1_000_000
+        );
+        log.info("Refresh token cleanup: removed={} batches={} tableRows~{} tableBytes={} in {}ms",
+                report.removed(), report.batches(), report.tableRowsEstimate(), report.tableBytes(), report.durationMs());
+        return report;
+    }
+}
@@ -2,7 +2,10 @@ package com.yassine.donationplatform.service.auth;
 
 import com.yassine.donationplatform.repository.RefreshTokenRepository;
 import com.yassine.donationplatform.entity.auth.RefreshToken;
+import com.yassine.donationplatform.security.jwt.AuthPrincipalCache;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -20,21 +23,29 @@ import java.util.UUID;
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
     private static final Duration TTL_SHORT = Duration.ofDays(7);
     private static final Duration TTL_LONG  = Duration.ofDays(30);
 
     private final RefreshTokenRepository repo;
+    private final AuthPrincipalCache principalCache;
     private final SecureRandom rng = new SecureRandom();
     private final String pepper;
+    private final Duration reuseGrace;
 
     public RefreshTokenService(RefreshTokenRepository repo,
-                               @Value("${app.auth.refresh-pepper:}") String pepper) {
+                               AuthPrincipalCache principalCache,
+                               @Value("${app.auth.refresh-pepper:}") String pepper,
+                               @Value("${app.auth.refresh-reuse-grace:10s}") Duration reuseGrace) {
         this.repo = repo;
+        this.principalCache = principalCache;
         this.pepper = pepper == null ? "" : pepper;
+        this.reuseGrace = reuseGrace;
     }
 
     public record IssueResult(String rawToken, Instant expiresAt) {}
-    public record RotationResult(UUID userId, String newRawToken, Instant newExpiresAt) {}
+    public record RotationResult(UUID userId, String email, String newRawToken, Instant newExpiresAt) {}
 
     @Transactional
     public IssueResult issue(UUID userId, boolean rememberMe, HttpServletRequest req) {
@@ -55,26 +66,45 @@ public class RefreshTokenService {
         return new IssueResult(raw, expiresAt);
     }
 
-    @Transactional
+    /**
+     * Un token déjà remplacé qui revient (vol / rejeu) révoque toute la famille de l'utilisateur ;
+     * noRollbackFor : la révocation doit être commitée malgré le 401. Sauf s'il a été remplacé il y a
+     * moins de reuse-grace : deux refresh quasi simultanés avec le même cookie (deux onglets), le perdant
+     * reçoit un simple 401.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
     public RotationResult verifyAndRotate(String rawToken, boolean rememberMe, HttpServletRequest req) {
         if (rawToken == null || rawToken.isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing refresh token");
         }
 
         String hash = sha256Hex(rawToken);
-        RefreshToken current = repo.findByTokenHash(hash)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(rememberMe ? TTL_LONG : TTL_SHORT);
+        String raw = generateRawToken();
 
-        if (current.isRevoked() || current.isExpired()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired/revoked");
+        var rotated = repo.rotate(hash, UUID.randomUUID(), sha256Hex(raw), now, expiresAt,
+                safe(req.getHeader("User-Agent")), safeClientIp(req));
+        if (rotated.isPresent()) {
+            return new RotationResult(rotated.get().getUserId(), rotated.get().getEmail(), raw, expiresAt);
         }
 
-        IssueResult issued = issue(current.getUserId(), rememberMe, req);
+        // chemin d'échec uniquement : pourquoi la rotation n'a rien renvoyé ?
+        RefreshToken current = repo.findByTokenHash(hash)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
 
-        current.setRevokedAt(Instant.now());
-        repo.save(current);
+        if (current.getReplacedBy() != null) {
+            if (current.getRevokedAt() != null && current.getRevokedAt().isAfter(now.minus(reuseGrace))) {
+                log.info("Refresh token for user {} already rotated {}ms ago: concurrent refresh, not revoking",
+                        current.getUserId(), Duration.between(current.getRevokedAt(), now).toMillis());
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token already rotated");
+            }
+            log.warn("Refresh token reuse detected for user {}: revoking all sessions", current.getUserId());
+            revokeAllForUser(current.getUserId());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token reuse detected");
+        }
 
-        return new RotationResult(current.getUserId(), issued.rawToken(), issued.expiresAt());
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired/revoked");
     }
 
     @Transactional
@@ -93,23 +123,20 @@ public class RefreshTokenService {
     @Transactional
     public void revokeAllForUser(UUID userId) {
         repo.deleteByUserId(userId);
-    }
-
-    @Transactional
-    public long cleanupExpired() {
-        return repo.deleteByExpiresAtBefore(Instant.now());
+        principalCache.invalidate(userId);
     }
 
     // -------- helpers --------
 
-    private String generateRawToken() {
+    // package-private : mesurés par RefreshTokenHashingBenchmark
+    String generateRawToken() {
         byte[] bytes = new byte[48]; // 384 bits
         rng.nextBytes(bytes);
         // base64url sans padding
         return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-    private String sha256Hex(String raw) {
+    String sha256Hex(String raw) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             String material = raw + pepper;
@@ -0,0 +1,183 @@
+package com.yassine.donationplatform.service.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation des caches locaux entre instances via Postgres LISTEN/NOTIFY.
+ * <p>
+ * publish() fait un pg_notify dans la transaction courante : livré au commit, jamais en cas de rollback.
+ * Chaque nœud garde une connexion dédiée (hors Hikari) en LISTEN ; après une coupure, les messages
+ * manqués sont perdus, donc on vide tous les caches abonnés à la reconnexion.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String TOPIC_SETTINGS = "settings";
+    public static final String TOPIC_USER = "user";
+
+    private record Subscriber(Consumer<String> onKey, Runnable onFlush) {}
+
+    private final JdbcTemplate jdbc;
+    private final String channel;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long reconnectDelayMs;
+
+    // message : "<nodeId>|<topic>|<key>" ; nos propres messages sont ignorés (déjà appliqués localement)
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile Connection listenerConnection;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbc,
+                                @Value("${app.cache.bus.enabled:true}") boolean enabled,
+                                @Value("${app.cache.bus.channel:cache_invalidation}") String channel,
+                                @Value("${app.cache.bus.reconnect-delay-ms:2000}") long reconnectDelayMs,
+                                @Value("${spring.datasource.url:}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password) {
+        this.jdbc = jdbc;
+        this.enabled = enabled && url != null && url.startsWith("jdbc:postgresql:");
+        this.channel = channel;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /** onKey : invalidation d'une entrée ; onFlush : tout le cache (reconnexion). */
+    public void subscribe(String topic, Consumer<String> onKey, Runnable onFlush) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(new Subscriber(onKey, onFlush));
+    }
+
+    public void publish(String topic, Object key) {
+        if (!enabled) return;
+        String payload = nodeId + "|" + topic + "|" + (key == null ? "" : key);
+        jdbc.queryForObject("select pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Cache invalidation bus disabled");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-bus-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeQuietly(listenerConnection);
+        if (listenerThread != null) listenerThread.interrupt();
+    }
+
+    private void listenLoop() {
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url, username, password)) {
+                listenerConnection = conn;
+                try (Statement st = conn.createStatement()) {
+                    st.execute("listen " + channel);
+                }
+                log.info("Cache invalidation bus listening on '{}'", channel);
+
+                if (!firstConnect) flushAll();
+                firstConnect = false;
+
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(10_000);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        dispatch(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Cache invalidation bus disconnected: {} (retry in {}ms)", e.getMessage(), reconnectDelayMs);
+                firstConnect = false; // des messages ont pu être manqués pendant la coupure
+                sleep(reconnectDelayMs);
+            } catch (RuntimeException e) {
+                // ne pas laisser mourir le thread : même chemin que la coupure (reconnexion puis flush)
+                if (!running) return;
+                log.error("Cache invalidation bus listener failed (retry in {}ms)", reconnectDelayMs, e);
+                firstConnect = false;
+                sleep(reconnectDelayMs);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) return;
+
+        List<Subscriber> subs = subscribers.get(parts[1]);
+        if (subs == null) return;
+
+        for (Subscriber s : subs) {
+            try {
+                if (parts[2].isEmpty()) s.onFlush().run();
+                else s.onKey().accept(parts[2]);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation failed topic={} key={}", parts[1], parts[2], e);
+            }
+        }
+    }
+
+    private void flushAll() {
+        log.info("Cache invalidation bus reconnected: flushing all local caches");
+        subscribers.forEach((topic, subs) -> subs.forEach(s -> {
+            try {
+                s.onFlush().run();
+            } catch (RuntimeException e) {
+                log.warn("Cache flush failed topic={}", topic, e);
+            }
+        }));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.yassine.donationplatform.service.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plafond d'appels simultanés vers une dépendance externe. Avec les threads virtuels, le pool Tomcat
+ * ne borne plus rien : c'est ce sémaphore qui protège Stripe / SMTP d'une rafale de requêtes.
+ * Attente bornée, puis 503.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int permits, Duration maxWait, MeterRegistry registry) {
+        this.name = name;
+        this.permits = Math.max(1, permits);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.semaphore = new Semaphore(this.permits, true);
+
+        Gauge.builder("bulkhead.in.use", semaphore, s -> this.permits - s.availablePermits())
+                .tag("name", name).register(registry);
+        Gauge.builder("bulkhead.queued", semaphore, Semaphore::getQueueLength)
+                .tag("name", name).register(registry);
+        this.rejected = registry.counter("bulkhead.rejected", "name", name);
+    }
+
+    public <T> T call(Callable<T> action) throws Exception {
+        acquire();
+        try {
+            return action.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public void run(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent calls to " + name);
+        }
+    }
+}
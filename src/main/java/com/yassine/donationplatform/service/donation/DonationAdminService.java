@@ -1,29 +1,119 @@
 package com.yassine.donationplatform.service.donation;
 
+import com.yassine.donationplatform.config.ReplicaRead;
 import com.yassine.donationplatform.entity.donation.Donation;
 import com.yassine.donationplatform.dto.DonationStatus;
 import com.yassine.donationplatform.dto.response.DonationAdminRowResponse;
 import com.yassine.donationplatform.repository.DonationRepository;
+import com.yassine.donationplatform.entity.receipt.TaxReceipt;
+import com.yassine.donationplatform.util.AdminSearch;
 import com.yassine.donationplatform.util.EmailMasker;
+import com.yassine.donationplatform.util.PageJsonWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@ReplicaRead
 public class DonationAdminService {
 
     private final DonationRepository repo;
 
-    public DonationAdminService(DonationRepository repo) {
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JsonMapper jsonMapper;
+    private final Timer listTimer;
+
+    public DonationAdminService(DonationRepository repo, JsonMapper jsonMapper, MeterRegistry registry) {
         this.repo = repo;
+        this.jsonMapper = jsonMapper;
+        this.listTimer = registry.timer("admin.list", "entity", "donations");
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DonationAdminRowResponse> listPage(LocalDate from, LocalDate to, DonationStatus status,
+                                                   String q, int page, int size) {
+
+        Specification<Donation> spec = and(filter(from, to, status), search(q));
+
+        int safeSize = Math.min(Math.max(size, 1), 200); // 1..200
+        int safePage = Math.max(page, 0);
+
+        Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by("createdAt").descending());
+
+        Page<Donation> donationPage = (spec == null)
+                ? repo.findAll(pageable)
+                : repo.findAll(spec, pageable);
+
+        return donationPage.map(DonationAdminService::toRow);
     }
 
-    public Page<DonationAdminRowResponse> listPage(LocalDate from, LocalDate to, DonationStatus status, int page, int size) {
+    /**
+     * Même page que {@link #listPage}, sérialisée au fil du curseur dans {@code out}
+     * (format JSON de PageResponse) sans passer par Page / List / PageResponse.
+     */
+    @Transactional(readOnly = true)
+    public void writePage(LocalDate from, LocalDate to, DonationStatus status, String q, int page, int size,
+                          OutputStream out) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Specification<Donation> spec = and(filter(from, to, status), search(q));
+
+            int safeSize = Math.min(Math.max(size, 1), 200);
+            int safePage = Math.max(page, 0);
+
+            long total = (spec == null) ? repo.count() : repo.count(spec);
+            boolean beyondEnd = (long) safePage * safeSize >= total;
+
+            try (JsonGenerator gen = jsonMapper.createGenerator(out);
+                 Stream<Donation> rows = beyondEnd ? Stream.empty() : streamPage(spec, safePage, safeSize)) {
+                PageJsonWriter.write(gen, rows, DonationAdminService::writeRow, safePage, safeSize, total);
+            }
+        } finally {
+            sample.stop(listTimer);
+        }
+    }
+
+    private Stream<Donation> streamPage(Specification<Donation> spec, int page, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Donation> cq = cb.createQuery(Donation.class);
+        Root<Donation> root = cq.from(Donation.class);
+        if (spec != null) {
+            cq.where(spec.toPredicate(root, cq, cb));
+        }
+        cq.orderBy(cb.desc(root.get("createdAt")));
+
+        return em.createQuery(cq)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, size)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
 
+    /** Filtres communs à la liste paginée et aux exports. Retourne null si aucun filtre. */
+    public static Specification<Donation> filter(LocalDate from, LocalDate to, DonationStatus status) {
         Specification<Donation> spec = null;
 
         if (from != null) {
@@ -40,16 +130,63 @@ public class DonationAdminService {
             spec = and(spec, (root, q, cb) -> cb.equal(root.get("status"), status));
         }
 
-        int safeSize = Math.min(Math.max(size, 1), 200); // 1..200
-        int safePage = Math.max(page, 0);
+        return spec;
+    }
 
-        Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by("createdAt").descending());
+    /**
+     * Recherche donateur : id, session / payment intent Stripe, numéro de reçu (égalité),
+     * email ou nom du donateur (sous-chaîne, index trigram). Retourne null si q est vide.
+     */
+    public static Specification<Donation> search(String rawQuery) {
+        String q = AdminSearch.normalize(rawQuery);
+        if (q == null) return null;
 
-        Page<Donation> donationPage = (spec == null)
-                ? repo.findAll(pageable)
-                : repo.findAll(spec, pageable);
+        UUID id = AdminSearch.uuidOrNull(q);
+        if (id != null) {
+            return (root, query, cb) -> cb.equal(root.get("id"), id);
+        }
+        if (AdminSearch.isStripeSessionId(q)) {
+            return (root, query, cb) -> cb.equal(root.get("stripeCheckoutSessionId"), q);
+        }
+        if (AdminSearch.isStripePaymentIntentId(q)) {
+            return (root, query, cb) -> cb.equal(root.get("stripePaymentIntentId"), q);
+        }
+
+        Long receiptNumber = AdminSearch.receiptNumberOrNull(q);
+        if (receiptNumber != null) {
+            return (root, query, cb) -> {
+                Subquery<UUID> sub = query.subquery(UUID.class);
+                Root<TaxReceipt> r = sub.from(TaxReceipt.class);
+                sub.select(r.get("donationId")).where(cb.equal(r.get("receiptNumber"), receiptNumber));
+                return root.get("id").in(sub);
+            };
+        }
+
+        if (AdminSearch.isEmail(q)) {
+            String email = q.toLowerCase();
+            return (root, query, cb) -> cb.equal(cb.lower(root.get("email")), email);
+        }
+
+        // UNION plutôt que OR : un OR entre le LIKE et le IN empêche le BitmapOr, Postgres parcourt alors
+        // chaque partition ; chaque branche de l'union garde son index trigram
+        String pattern = AdminSearch.containsPattern(q);
+        return (root, query, cb) -> {
+            Subquery<UUID> byEmail = query.subquery(UUID.class);
+            Root<Donation> d = byEmail.from(Donation.class);
+            byEmail.select(d.get("id"))
+                    .where(cb.like(cb.lower(d.get("email")), pattern, AdminSearch.LIKE_ESCAPE));
 
-        return donationPage.map(d -> new DonationAdminRowResponse(
+            Subquery<UUID> byName = query.subquery(UUID.class);
+            Root<TaxReceipt> r = byName.from(TaxReceipt.class);
+            byName.select(r.get("donationId"))
+                    .where(cb.like(cb.lower(r.get("donorFullName")), pattern, AdminSearch.LIKE_ESCAPE));
+
+            return root.get("id").in(((HibernateCriteriaBuilder) cb).union(byEmail, byName));
+        };
+    }
+
+    public static DonationAdminRowResponse toRow(Donation d) {
+        return new DonationAdminRowResponse(
                 d.getId(),
                 d.getCreatedAt(),
                 d.getAmountCents(),
@@ -58,10 +195,24 @@ public class DonationAdminService {
                 d.getProvider(),
                 d.getPaymentMethod(),
                 EmailMasker.mask(d.getEmail())
-        ));
+        );
+    }
+
+    static void writeRow(JsonGenerator gen, Donation d) {
+        gen.writeStartObject();
+        PageJsonWriter.writeStringOrNull(gen, "id", d.getId());
+        PageJsonWriter.writeStringOrNull(gen, "createdAt", d.getCreatedAt());
+        gen.writeNumberProperty("amountCents", d.getAmountCents());
+        PageJsonWriter.writeStringOrNull(gen, "currency", d.getCurrency());
+        PageJsonWriter.writeStringOrNull(gen, "status", d.getStatus());
+        PageJsonWriter.writeStringOrNull(gen, "provider", d.getProvider());
+        PageJsonWriter.writeStringOrNull(gen, "paymentMethod", d.getPaymentMethod());
+        PageJsonWriter.writeStringOrNull(gen, "emailMasked", EmailMasker.mask(d.getEmail()));
+        gen.writeEndObject();
     }
 
     private static <T> Specification<T> and(Specification<T> base, Specification<T> add) {
+        if (add == null) return base;
         return base == null ? add : base.and(add);
     }
 }
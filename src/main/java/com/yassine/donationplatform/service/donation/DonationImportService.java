@@ -0,0 +1,396 @@
+package com.yassine.donationplatform.service.donation;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.dto.response.DonationImportResponse;
+import com.yassine.donationplatform.dto.response.DonationImportResponse.LineError;
+import com.yassine.donationplatform.util.AdminSearch;
+import com.yassine.donationplatform.util.CsvReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Import CSV des dons hors ligne (chèques, espèces, virements), en deux temps :
+ * 1. lecture en flux : chaque ligne est validée puis envoyée par COPY dans donation_import_staging
+ *    (mémoire constante quelle que soit la taille du fichier) ;
+ * 2. fusion ensembliste dans donation (INSERT ... SELECT) : PAID / OFFLINE, created_at = date du don,
+ *    id UUIDv7 de cette date (V14).
+ * Les lignes valides sont importées même si d'autres sont rejetées ; le rapport donne le numéro
+ * de ligne et la raison de chaque rejet (format, référence en double ou déjà importée).
+ * Colonnes (en-tête obligatoire, ';' ou ',') : date, amount, method, reference, et en option currency, email.
+ */
+@Service
+public class DonationImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationImportService.class);
+
+    private static final String COPY_SQL = """
+            copy donation_import_staging (import_id, line_no, donated_on, amount_cents, currency,
+                                          payment_method, email, external_ref) from stdin""";
+
+    private static final String ENSURE_PARTITIONS_SQL = """
+            select donation_ensure_partition(m)
+            from (select distinct date_trunc('month', donated_on)::date as m
+                  from donation_import_staging where import_id = ?) months""";
+
+    // même (moyen, référence) plus haut dans le fichier, ou déjà présent dans donation (jointure, pas de
+    // sous-requête corrélée : une sonde par ligne et par partition coûtait plus que tout le reste de l'import)
+    private static final String DUPLICATES_SQL = """
+            select s.line_no, s.first_line
+            from (select line_no, payment_method, external_ref,
+                         min(line_no) over (partition by payment_method, external_ref) as first_line
+                  from donation_import_staging where import_id = ?) s
+            left join (select distinct d.payment_method, d.external_ref
+                       from donation d
+                       join donation_import_staging i
+                         on i.payment_method = d.payment_method and i.external_ref = d.external_ref
+                        and i.import_id = ?) known
+              on known.payment_method = s.payment_method and known.external_ref = s.external_ref
+            where s.line_no > s.first_line or known.external_ref is not null
+            order by s.line_no""";
+
+    // trigger d'agrégat neutralisé dans la transaction (app.donation_rollup_deferred, cf. V12) :
+    // un seul upsert par (jour, statut, moyen, devise), dans l'ordre de la clé comme le trigger (V10)
+    private static final String MERGE_SQL = """
+            with inserted as (
+              insert into donation (id, amount_cents, currency, status, provider, payment_method, email,
+                                    external_ref, created_at, updated_at)
+              select uuid_v7_at(s.created_at), s.amount_cents, s.currency, ?, ?, s.payment_method, s.email,
+                     s.external_ref, s.created_at, now()
+              from (select distinct on (payment_method, external_ref) *,
+                           donated_on::timestamp at time zone 'UTC' as created_at
+                    from donation_import_staging where import_id = ?
+                    order by payment_method, external_ref, line_no) s
+              where not exists (select 1 from donation d
+                                where d.payment_method = s.payment_method and d.external_ref = s.external_ref)
+              returning created_at, status, payment_method, currency, amount_cents
+            ), rollup as (
+              insert into donation_daily_rollup (day, status, payment_method, currency,
+                                                 donation_count, amount_cents_sum, updated_at)
+              select (created_at at time zone 'UTC')::date, status, payment_method, currency,
+                     count(*), sum(amount_cents), now()
+              from inserted
+              group by 1, 2, 3, 4
+              order by 1, 2, 3, 4
+              on conflict (day, status, payment_method, currency) do update
+                set donation_count   = donation_daily_rollup.donation_count + excluded.donation_count,
+                    amount_cents_sum = donation_daily_rollup.amount_cents_sum + excluded.amount_cents_sum,
+                    updated_at       = now()
+            )
+            select count(*) from inserted""";
+
+    private static final DateTimeFormatter FR_DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu");
+    private static final Pattern CURRENCY = Pattern.compile("^[A-Z]{3}$");
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Timer importTimer;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    @Value("${app.import.max-rows:1000000}")
+    private long maxRows;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.import.max-age-years:10}")
+    private int maxAgeYears;
+
+    public DonationImportService(JdbcTemplate jdbc, PlatformTransactionManager txManager, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.importTimer = registry.timer("donation.import");
+        this.importedRows = registry.counter("donation.import.rows", "outcome", "imported");
+        this.rejectedRows = registry.counter("donation.import.rows", "outcome", "rejected");
+    }
+
+    private record Row(LocalDate date, int amountCents, String currency, PaymentMethod method,
+                       String email, String reference) {}
+
+    /** Index des colonnes d'après l'en-tête ; -1 pour une colonne optionnelle absente. */
+    private record Columns(int date, int amount, int method, int reference, int currency, int email) {
+
+        static Columns of(List<String> header) {
+            List<String> names = header.stream().map(h -> h.toLowerCase(Locale.ROOT)).toList();
+            List<String> missing = new ArrayList<>();
+            for (String required : List.of("date", "amount", "method", "reference")) {
+                if (!names.contains(required)) missing.add(required);
+            }
+            if (!missing.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing column(s): " + String.join(", ", missing));
+            }
+            return new Columns(names.indexOf("date"), names.indexOf("amount"), names.indexOf("method"),
+                    names.indexOf("reference"), names.indexOf("currency"), names.indexOf("email"));
+        }
+
+        static String get(List<String> fields, int index) {
+            return index < 0 || index >= fields.size() ? "" : fields.get(index);
+        }
+    }
+
+    /** Rejets : tous comptés, seuls les maxReportedErrors premiers sont détaillés. */
+    private static final class Report {
+        private final int maxErrors;
+        private final List<LineError> errors = new ArrayList<>();
+        private long lines;
+        private long rejected;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) errors.add(new LineError(line, message));
+        }
+    }
+
+    public DonationImportResponse importCsv(InputStream in) {
+        long start = System.nanoTime();
+        UUID importId = UUID.randomUUID();
+        Report report = new Report(maxReportedErrors);
+
+        long imported;
+        try {
+            long staged = stage(importId, in, report);
+            imported = staged == 0 ? 0 : merge(importId, report);
+        } finally {
+            jdbc.update("delete from donation_import_staging where import_id = ?", importId);
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        importTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        importedRows.increment(imported);
+        rejectedRows.increment(report.rejected);
+        log.info("Donation import {}: {} line(s), {} imported, {} rejected in {}ms",
+                importId, report.lines, imported, report.rejected, durationNanos / 1_000_000);
+
+        report.errors.sort(Comparator.comparingLong(LineError::getLine));
+        return new DonationImportResponse(report.lines, imported, report.rejected, report.errors,
+                report.rejected > report.errors.size(), durationNanos / 1_000_000);
+    }
+
+    /** Lignes purgées par UnfinishedWorkRecovery quand un import a été interrompu (arrêt brutal). */
+    public int purgeStaleStaging(Instant cutoff) {
+        return jdbc.update("delete from donation_import_staging where staged_at < ?", Timestamp.from(cutoff));
+    }
+
+    private long stage(UUID importId, InputStream in, Report report) {
+        Long staged = jdbc.execute((ConnectionCallback<Long>) con -> {
+            CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                readInto(copy, importId, in, report);
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+        });
+        return staged == null ? 0 : staged;
+    }
+
+    private void readInto(CopyIn copy, UUID importId, InputStream in, Report report) throws IOException, SQLException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty file");
+        }
+        if (header.startsWith("\uFEFF")) header = header.substring(1); // BOM Excel
+
+        char separator = CsvReader.detectSeparator(header);
+        Columns columns = Columns.of(CsvReader.split(header, separator));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        String id = importId.toString();
+
+        StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+        long lineNo = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            if (++report.lines > maxRows) {
+                throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE, "More than " + maxRows + " rows");
+            }
+
+            Row row;
+            try {
+                row = parse(CsvReader.split(line, separator), columns, today);
+            } catch (IllegalArgumentException e) {
+                report.reject(lineNo, e.getMessage());
+                continue;
+            }
+
+            appendCopyRow(buffer, id, lineNo, row);
+            if (buffer.length() >= COPY_BUFFER_CHARS) flush(copy, buffer);
+        }
+        flush(copy, buffer);
+    }
+
+    private Row parse(List<String> fields, Columns c, LocalDate today) {
+        LocalDate date = parseDate(Columns.get(fields, c.date()));
+        if (date.isAfter(today)) throw new IllegalArgumentException("date: in the future");
+        if (date.isBefore(today.minusYears(maxAgeYears))) {
+            throw new IllegalArgumentException("date: more than " + maxAgeYears + " years ago");
+        }
+
+        int amountCents = parseAmount(Columns.get(fields, c.amount()));
+
+        String currency = Columns.get(fields, c.currency()).toUpperCase(Locale.ROOT);
+        if (currency.isEmpty()) currency = "EUR";
+        if (!CURRENCY.matcher(currency).matches()) throw new IllegalArgumentException("currency: expected ISO code (EUR)");
+
+        PaymentMethod method = parseMethod(Columns.get(fields, c.method()));
+
+        String email = Columns.get(fields, c.email());
+        if (email.isEmpty()) {
+            email = null;
+        } else if (email.length() > 320 || !AdminSearch.isEmail(email)) {
+            throw new IllegalArgumentException("email: invalid");
+        }
+
+        String reference = Columns.get(fields, c.reference());
+        if (reference.isEmpty()) throw new IllegalArgumentException("reference: required");
+        if (reference.length() > 100) throw new IllegalArgumentException("reference: longer than 100 characters");
+
+        return new Row(date, amountCents, currency, method, email, reference);
+    }
+
+    private static LocalDate parseDate(String v) {
+        try {
+            return v.indexOf('/') > 0 ? LocalDate.parse(v, FR_DATE) : LocalDate.parse(v);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date: expected yyyy-MM-dd or dd/MM/yyyy");
+        }
+    }
+
+    private static int parseAmount(String v) {
+        try {
+            BigDecimal amount = new BigDecimal(v.replace(" ", "").replace(',', '.'));
+            if (amount.signum() <= 0) throw new IllegalArgumentException("amount: must be positive");
+            if (amount.scale() > 2) throw new IllegalArgumentException("amount: more than 2 decimals");
+            return amount.movePointRight(2).intValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("amount: expected a number like 20 or 12.50");
+        }
+    }
+
+    private static PaymentMethod parseMethod(String v) {
+        try {
+            PaymentMethod method = PaymentMethod.valueOf(v.toUpperCase(Locale.ROOT));
+            if (PaymentMethod.OFFLINE.contains(method)) return method;
+        } catch (IllegalArgumentException ignored) {
+            // message commun ci-dessous
+        }
+        throw new IllegalArgumentException("method: expected one of " + PaymentMethod.OFFLINE);
+    }
+
+    private static void appendCopyRow(StringBuilder out, String importId, long lineNo, Row r) {
+        out.append(importId).append('\t')
+                .append(lineNo).append('\t')
+                .append(r.date()).append('\t')
+                .append(r.amountCents()).append('\t')
+                .append(r.currency()).append('\t')
+                .append(r.method().name()).append('\t');
+        appendCopyText(out, r.email());
+        out.append('\t');
+        appendCopyText(out, r.reference());
+        out.append('\n');
+    }
+
+    // format texte de COPY : \N pour null, antislash et caractères de contrôle échappés
+    private static void appendCopyText(StringBuilder out, String v) {
+        if (v == null) {
+            out.append("\\N");
+            return;
+        }
+        for (int i = 0; i < v.length(); i++) {
+            char ch = v.charAt(i);
+            switch (ch) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(ch);
+            }
+        }
+    }
+
+    private static void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) return;
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private long merge(UUID importId, Report report) {
+        // table fraîchement remplie, pas encore vue par l'autovacuum : sans statistiques, le planner
+        // estime quelques lignes et choisit des boucles imbriquées sur donation (minutes au lieu de secondes)
+        jdbc.execute("analyze donation_import_staging");
+        // hors de la transaction de fusion : créer une partition verrouille donation
+        jdbc.queryForList(ENSURE_PARTITIONS_SQL, String.class, importId);
+
+        Long imported = tx.execute(status -> {
+            // imports sérialisés : le contrôle des références déjà importées reste juste
+            jdbc.execute("select pg_advisory_xact_lock(hashtext('donation_import'))");
+            jdbc.execute("select set_config('app.donation_rollup_deferred', 'on', true)");
+
+            jdbc.query(con -> {
+                var ps = con.prepareStatement(DUPLICATES_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setObject(1, importId);
+                ps.setObject(2, importId);
+                return ps;
+            }, rs -> {
+                long line = rs.getLong(1);
+                long firstLine = rs.getLong(2);
+                report.reject(line, line > firstLine
+                        ? "reference: duplicate of line " + firstLine
+                        : "reference: already imported");
+            });
+
+            return jdbc.queryForObject(MERGE_SQL, Long.class,
+                    DonationStatus.PAID.name(), PaymentProvider.OFFLINE.name(), importId);
+        });
+        return imported == null ? 0 : imported;
+    }
+}
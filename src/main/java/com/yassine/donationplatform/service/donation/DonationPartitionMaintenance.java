@@ -0,0 +1,125 @@
+package com.yassine.donationplatform.service.donation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitions mensuelles de donation (cf. V11) :
+ * - crée à l'avance les partitions du mois courant et des months-ahead suivants ;
+ * - optionnel : déplace les partitions de plus de archive-after-months vers archive-tablespace.
+ *   Elles restent attachées (la FK de tax_receipt interdit de détacher un mois qui a des reçus) ;
+ *   SET TABLESPACE réécrit la partition sous verrou exclusif, d'où l'exécution de nuit ;
+ * - signale toute ligne tombée dans donation_default (mois sans partition).
+ */
+@Component
+public class DonationPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationPartitionMaintenance.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            select c.relname, coalesce(t.spcname, '')
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            left join pg_tablespace t on t.oid = c.reltablespace
+            where i.inhparent = 'donation'::regclass
+              and c.relname ~ '^donation_p[0-9]{4}_[0-9]{2}$'
+            order by c.relname""";
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.partitions.archive-tablespace:}")
+    private String archiveTablespace;
+
+    @Value("${app.partitions.archive-after-months:24}")
+    private int archiveAfterMonths;
+
+    public DonationPartitionMaintenance(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        run();
+    }
+
+    @Scheduled(cron = "${app.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void run() {
+        try {
+            ensureFuturePartitions();
+            archiveOldPartitions();
+            checkDefaultPartition();
+        } catch (DataAccessException e) {
+            log.error("Donation partition maintenance failed", e);
+        }
+    }
+
+    /** Partitions du mois courant et des months-ahead mois suivants ; retourne leurs noms. */
+    public List<String> ensureFuturePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                names.add(jdbc.queryForObject("select donation_ensure_partition(?)", String.class, month.atDay(1)));
+            } catch (DataAccessException e) {
+                // typiquement : donation_default contient déjà des lignes de ce mois
+                log.error("Cannot create donation partition for {}", month, e);
+            }
+        }
+        return names;
+    }
+
+    public int archiveOldPartitions() {
+        if (archiveTablespace == null || archiveTablespace.isBlank() || archiveAfterMonths <= 0) return 0;
+
+        String cutoff = "donation_p" + YearMonth.now(ZoneOffset.UTC).minusMonths(archiveAfterMonths).format(PARTITION_SUFFIX);
+        String tablespace = quoteIdent(archiveTablespace.trim());
+
+        int moved = 0;
+        for (String[] p : jdbc.query(PARTITIONS_SQL, (rs, i) -> new String[]{rs.getString(1), rs.getString(2)})) {
+            String name = p[0];
+            // même format zéro-paddé : l'ordre des noms est l'ordre des mois
+            if (name.compareTo(cutoff) >= 0 || archiveTablespace.trim().equals(p[1])) continue;
+
+            long start = System.nanoTime();
+            jdbc.execute("alter table " + quoteIdent(name) + " set tablespace " + tablespace);
+            for (String index : jdbc.queryForList(
+                    "select indexrelid::regclass::text from pg_index where indrelid = ?::regclass", String.class, name)) {
+                jdbc.execute("alter index " + index + " set tablespace " + tablespace);
+            }
+            moved++;
+            log.info("Donation partition {} moved to tablespace {} in {}ms",
+                    name, archiveTablespace, (System.nanoTime() - start) / 1_000_000);
+        }
+        return moved;
+    }
+
+    private void checkDefaultPartition() {
+        Boolean hasRows = jdbc.queryForObject("select exists (select 1 from donation_default)", Boolean.class);
+        if (Boolean.TRUE.equals(hasRows)) {
+            log.warn("donation_default has rows: some months have no partition (move them before creating it)");
+        }
+    }
+
+    private static String quoteIdent(String ident) {
+        return "\"" + ident.replace("\"", "\"\"") + "\"";
+    }
+}
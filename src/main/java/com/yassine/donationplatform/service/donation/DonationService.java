@@ -1,18 +1,26 @@
 package com.yassine.donationplatform.service.donation;
 
+import com.yassine.donationplatform.config.ReplicaRoutingDataSource;
 import com.yassine.donationplatform.dto.DonationStatus;
 import com.yassine.donationplatform.dto.PaymentMethod;
 import com.yassine.donationplatform.dto.PaymentProvider;
 import com.yassine.donationplatform.entity.donation.*;
 import com.yassine.donationplatform.repository.DonationRepository;
+import com.yassine.donationplatform.util.UuidV7;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class DonationService {
 
+    private static final Set<DonationStatus> IN_PROGRESS = EnumSet.of(DonationStatus.CREATED, DonationStatus.PENDING);
+
     private final DonationRepository repo;
 
     public DonationService(DonationRepository repo) {
@@ -20,8 +28,11 @@ public class DonationService {
     }
 
     public Donation createDonation(int amountCents, String currency, PaymentMethod pm, String email) {
+        // id v7 et created_at sur la même milliseconde : l'id suffit ensuite à retrouver la partition
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
         Donation d = Donation.builder()
-                .id(UUID.randomUUID())
+                .id(UuidV7.generate(now))
+                .createdAt(now)
                 .amountCents(amountCents)
                 .currency(currency)
                 .status(DonationStatus.CREATED)
@@ -32,15 +43,36 @@ public class DonationService {
         return repo.save(d);
     }
 
+    /**
+     * Id v7 : created_at borné à la milliseconde de l'id, une seule partition lue.
+     * Id v4 (dons créés avant V14) : toutes les partitions.
+     */
     public Optional<Donation> findById(UUID id) {
-        return repo.findById(id);
+        return UuidV7.timestamp(id)
+                .map(at -> repo.findByIdCreatedBetween(id, at, at.plusMillis(1)))
+                .orElseGet(() -> repo.findByIdInAnyPartition(id));
     }
 
-    public Optional<Donation> findBySessionId(String sessionId) {
-        return repo.findByStripeCheckoutSessionId(sessionId);
+    /** Clé primaire complète, connue des reçus (tax_receipt.donation_created_at). */
+    public Optional<Donation> findByKey(UUID id, Instant createdAt) {
+        return repo.findById(new DonationKey(id, createdAt));
     }
 
-    public Donation save(Donation donation) {
-        return repo.save(donation);
+    /**
+     * Consultation publique : réplica d'abord. Relu sur le primaire si le don n'y est pas encore arrivé,
+     * ou s'il y est encore CREATED/PENDING : le primaire a pu le passer en PAID, et un donneur qui interroge
+     * en boucle pendant que le réplica redevient utilisable verrait sinon PAID puis PENDING.
+     * Un statut sorti de CREATED/PENDING ne change plus qu'au remboursement, des jours plus tard (max-lag : secondes).
+     */
+    public Optional<Donation> findByIdPreferReplica(UUID id) {
+        Optional<Donation> donation = ReplicaRoutingDataSource.readFromReplica(() -> findById(id));
+        if (donation.isPresent() && !IN_PROGRESS.contains(donation.get().getStatus())) {
+            return donation;
+        }
+        return findById(id);
+    }
+
+    public Optional<Donation> findBySessionId(String sessionId) {
+        return repo.findByStripeCheckoutSessionId(sessionId);
     }
 }
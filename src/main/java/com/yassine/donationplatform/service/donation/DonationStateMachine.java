@@ -0,0 +1,172 @@
+package com.yassine.donationplatform.service.donation;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.util.UuidV7;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.yassine.donationplatform.dto.DonationStatus.*;
+
+/**
+ * Transitions de statut d'un don, chacune en un seul UPDATE gardé par le statut courant :
+ * pas de lecture puis save() (fenêtre de mise à jour perdue), et un événement en retard
+ * (FAILED après PAID, rejeu d'un webhook) ne fait rien au lieu d'écraser le statut.
+ * <pre>
+ * CREATED -> PENDING (session Stripe créée)
+ * CREATED, PENDING -> PAID | FAILED | CANCELED
+ * PAID -> REFUNDED
+ * </pre>
+ * Le FOR UPDATE de la sous-requête verrouille la ligne et retourne l'ancien statut ; une transition
+ * concurrente attend, revérifie la garde sur la nouvelle version et ne s'applique pas.
+ */
+@Service
+public class DonationStateMachine {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationStateMachine.class);
+
+    private static final Map<DonationStatus, Set<DonationStatus>> ALLOWED_FROM = Map.of(
+            PENDING, EnumSet.of(CREATED),
+            PAID, EnumSet.of(CREATED, PENDING),
+            FAILED, EnumSet.of(CREATED, PENDING),
+            CANCELED, EnumSet.of(CREATED, PENDING),
+            REFUNDED, EnumSet.of(PAID)
+    );
+
+    // %1$s / %3$s : recherche (par id ou payment intent) dans la sous-requête puis sur la cible, répétée pour
+    // que l'UPDATE ne porte que sur les partitions lues ; %2$s : statuts de départ autorisés
+    private static final String TRANSITION_SQL = """
+            update donation d
+            set status = ?,
+                stripe_checkout_session_id = coalesce(d.stripe_checkout_session_id, ?),
+                stripe_payment_intent_id = coalesce(?, d.stripe_payment_intent_id),
+                updated_at = now()
+            from (select id, created_at, status
+                  from donation
+                  where %1$s and status in (%2$s)
+                  for update) old
+            where d.id = old.id and d.created_at = old.created_at and %3$s
+            returning d.id, old.status""";
+
+    /**
+     * applied = false : statut déjà ailleurs (current) ou don introuvable (current null).
+     * from : statut avant la transition quand elle s'est appliquée.
+     */
+    public record Transition(UUID donationId, DonationStatus from, DonationStatus to, boolean applied,
+                             DonationStatus current) {}
+
+    /** Prédicats sur des colonnes de donation (qualifiés par on(alias)) et leurs paramètres. */
+    private record Lookup(List<String> predicates, List<Object> args) {
+        String on(String alias) {
+            return predicates.stream().map(p -> alias + p).collect(Collectors.joining(" and "));
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry registry;
+
+    public DonationStateMachine(JdbcTemplate jdbc, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.registry = registry;
+    }
+
+    /** Session Checkout créée : le donneur part chez Stripe. */
+    @Transactional
+    public Transition markPending(UUID donationId, String sessionId) {
+        return apply(donationId, PENDING, sessionId, null);
+    }
+
+    @Transactional
+    public Transition markPaid(UUID donationId, String sessionId, String paymentIntentId) {
+        return apply(donationId, PAID, sessionId, paymentIntentId);
+    }
+
+    @Transactional
+    public Transition markFailed(UUID donationId, String sessionId) {
+        return apply(donationId, FAILED, sessionId, null);
+    }
+
+    /** Session Checkout expirée sans paiement. */
+    @Transactional
+    public Transition markCanceled(UUID donationId, String sessionId) {
+        return apply(donationId, CANCELED, sessionId, null);
+    }
+
+    /** Remboursement total ; Stripe ne connaît que le payment intent (toutes les partitions, via son index). */
+    @Transactional
+    public List<Transition> markRefunded(String paymentIntentId) {
+        Lookup byPaymentIntent = new Lookup(List.of("stripe_payment_intent_id = ?"), List.of(paymentIntentId));
+        List<Transition> transitions = query(byPaymentIntent, REFUNDED, null, null);
+        if (transitions.isEmpty()) {
+            registry.counter("donation.status.transitions.rejected", "to", REFUNDED.name()).increment();
+            log.info("Donation transition to REFUNDED not applied: no PAID donation for payment intent {}", paymentIntentId);
+            return List.of();
+        }
+        transitions.forEach(this::onApplied);
+        return transitions;
+    }
+
+    private Transition apply(UUID donationId, DonationStatus to, String sessionId, String paymentIntentId) {
+        Lookup byId = byId(donationId);
+        List<Transition> transitions = query(byId, to, sessionId, paymentIntentId);
+        if (!transitions.isEmpty()) {
+            Transition t = transitions.getFirst();
+            onApplied(t);
+            return t;
+        }
+
+        DonationStatus current = jdbc.query("select status from donation where " + byId.on(""),
+                rs -> rs.next() ? DonationStatus.valueOf(rs.getString(1)) : null, byId.args().toArray());
+        registry.counter("donation.status.transitions.rejected", "to", to.name()).increment();
+        log.info("Donation {} transition to {} not applied (current status {})", donationId, to, current);
+        return new Transition(donationId, null, to, false, current);
+    }
+
+    /** Id v7 : created_at borné à la milliseconde de l'id, une seule partition ; id v4 (avant V14) : toutes. */
+    private static Lookup byId(UUID donationId) {
+        Optional<Instant> createdAt = UuidV7.timestamp(donationId);
+        if (createdAt.isEmpty()) {
+            return new Lookup(List.of("id = ?"), List.of(donationId));
+        }
+        return new Lookup(List.of("id = ?", "created_at >= ?", "created_at < ?"), List.of(donationId,
+                OffsetDateTime.ofInstant(createdAt.get(), ZoneOffset.UTC),
+                OffsetDateTime.ofInstant(createdAt.get().plusMillis(1), ZoneOffset.UTC)));
+    }
+
+    private List<Transition> query(Lookup lookup, DonationStatus to, String sessionId, String paymentIntentId) {
+        Set<DonationStatus> from = ALLOWED_FROM.get(to);
+        String sql = TRANSITION_SQL.formatted(lookup.on(""), String.join(", ", Collections.nCopies(from.size(), "?")),
+                lookup.on("d."));
+
+        List<Object> args = new ArrayList<>();
+        args.add(to.name());
+        args.add(sessionId);
+        args.add(paymentIntentId);
+        args.addAll(lookup.args());
+        from.forEach(s -> args.add(s.name()));
+        args.addAll(lookup.args());
+
+        return jdbc.query(sql, (rs, i) -> new Transition(
+                rs.getObject(1, UUID.class), DonationStatus.valueOf(rs.getString(2)), to, true, to), args.toArray());
+    }
+
+    private void onApplied(Transition t) {
+        registry.counter("donation.status.transitions", "from", t.from().name(), "to", t.to().name()).increment();
+    }
+}
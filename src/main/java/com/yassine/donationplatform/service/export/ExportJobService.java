@@ -0,0 +1,220 @@
+package com.yassine.donationplatform.service.export;
+
+import com.yassine.donationplatform.dto.*;
+import com.yassine.donationplatform.dto.request.CreateExportJobRequest;
+import com.yassine.donationplatform.dto.response.ExportJobResponse;
+import com.yassine.donationplatform.entity.export.ExportJob;
+import com.yassine.donationplatform.repository.ExportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    private final ExportJobRepository jobs;
+    private final ExportJobWorker worker;
+    private final ThreadPoolTaskExecutor exportExecutor;
+
+    public ExportJobService(ExportJobRepository jobs, ExportJobWorker worker, ThreadPoolTaskExecutor exportExecutor) {
+        this.jobs = jobs;
+        this.worker = worker;
+        this.exportExecutor = exportExecutor;
+    }
+
+    public ExportJobResponse create(CreateExportJobRequest req) {
+        if (req.getFrom() != null && req.getTo() != null && req.getTo().isBefore(req.getFrom())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must be after 'from'");
+        }
+
+        ExportJob job = ExportJob.builder()
+                .kind(req.getKind())
+                .format(req.getFormat() == null ? ExportFormat.CSV : req.getFormat())
+                .status(ExportJobStatus.QUEUED)
+                .filterFrom(req.getFrom())
+                .filterTo(req.getTo())
+                .filterStatus(normalizeStatus(req.getKind(), req.getStatus()))
+                .build();
+
+        if (worker.isDraining()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down");
+        }
+
+        // commit avant soumission : le worker relit le job depuis la base
+        ExportJob saved = jobs.save(job);
+
+        try {
+            exportExecutor.execute(() -> worker.run(saved.getId()));
+        } catch (TaskRejectedException e) {
+            saved.setStatus(ExportJobStatus.FAILED);
+            saved.setError("Export queue full");
+            saved.setFinishedAt(Instant.now());
+            jobs.save(saved);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress");
+        }
+
+        return toResponse(saved);
+    }
+
+    public ExportJobResponse get(UUID id) {
+        return toResponse(find(id));
+    }
+
+    public ResponseEntity<Resource> download(UUID id) {
+        ExportJob job = find(id);
+
+        if (job.getStatus() == ExportJobStatus.EXPIRED) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Export expired");
+        }
+        if (job.getStatus() != ExportJobStatus.DONE || job.getFilePath() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Export not ready");
+        }
+
+        Path path = Path.of(job.getFilePath());
+        if (!Files.isRegularFile(path)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Export file missing");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + path.getFileName() + "\"")
+                .contentLength(job.getBytes() != null ? job.getBytes() : path.toFile().length())
+                .body(new FileSystemResource(path));
+    }
+
+    /**
+     * Arrêt : plus de nouveau job, les jobs en file restent QUEUED, ceux en cours ont jusqu'à
+     * {@code timeout} pour finir. Au-delà ils sont interrompus et remis en file.
+     */
+    public void drain(Duration timeout) {
+        worker.stopTaking();
+        ThreadPoolExecutor executor = exportExecutor.getThreadPoolExecutor();
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.info("Export executor drained");
+                return;
+            }
+            executor.shutdownNow();
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+
+        Set<UUID> unfinished = worker.runningJobs();
+        if (!unfinished.isEmpty()) {
+            int requeued = jobs.requeue(unfinished);
+            log.warn("Export drain timed out after {}: {} job(s) re-queued", timeout, requeued);
+        }
+    }
+
+    /**
+     * Démarrage : reprend les jobs laissés QUEUED par un arrêt, et les RUNNING plus vieux que
+     * {@code staleAfter} (instance tuée sans arrêt propre). Un job soumis deux fois n'est exécuté
+     * qu'une fois (cf. ExportJobRepository#claim).
+     */
+    public int recoverUnfinished(Duration staleAfter) {
+        int stale = jobs.requeueStale(Instant.now().minus(staleAfter));
+
+        int submitted = 0;
+        for (ExportJob job : jobs.findByStatusOrderByCreatedAtAsc(ExportJobStatus.QUEUED)) {
+            UUID id = job.getId();
+            try {
+                exportExecutor.execute(() -> worker.run(id));
+                submitted++;
+            } catch (TaskRejectedException e) {
+                break; // file pleine : le reste attend la prochaine reprise
+            }
+        }
+
+        if (stale > 0 || submitted > 0) {
+            log.info("Export recovery: {} stale job(s) re-queued, {} job(s) resubmitted", stale, submitted);
+        }
+        return submitted;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:600000}")
+    public void expireOldArtifacts() {
+        List<ExportJob> expired = jobs.findByStatusInAndExpiresAtBefore(
+                List.of(ExportJobStatus.DONE, ExportJobStatus.FAILED), Instant.now());
+
+        for (ExportJob job : expired) {
+            if (job.getFilePath() != null) {
+                try {
+                    Files.deleteIfExists(Path.of(job.getFilePath()));
+                } catch (Exception e) {
+                    log.warn("Export job {}: failed to delete artifact {}", job.getId(), job.getFilePath(), e);
+                    continue;
+                }
+            }
+            job.setStatus(ExportJobStatus.EXPIRED);
+            job.setFilePath(null);
+            jobs.save(job);
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Export cleanup: {} job(s) expired", expired.size());
+        }
+    }
+
+    private ExportJob find(UUID id) {
+        return jobs.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Export not found"));
+    }
+
+    private static String normalizeStatus(ExportKind kind, String status) {
+        if (status == null || status.isBlank()) return null;
+        String s = status.trim().toUpperCase();
+        try {
+            return kind == ExportKind.DONATIONS
+                    ? DonationStatus.valueOf(s).name()
+                    : TaxReceiptStatus.valueOf(s).name();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown status: " + status);
+        }
+    }
+
+    private static ExportJobResponse toResponse(ExportJob j) {
+        String downloadUrl = j.getStatus() == ExportJobStatus.DONE
+                ? "/api/admin/exports/" + j.getId() + "/download"
+                : null;
+
+        return new ExportJobResponse(
+                j.getId(),
+                j.getKind(),
+                j.getFormat(),
+                j.getStatus(),
+                j.getRowCount(),
+                j.getBytes(),
+                j.getDurationMs(),
+                j.getError(),
+                j.getCreatedAt(),
+                j.getFinishedAt(),
+                j.getExpiresAt(),
+                downloadUrl
+        );
+    }
+}
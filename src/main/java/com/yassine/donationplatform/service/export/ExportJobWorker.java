@@ -0,0 +1,277 @@
+package com.yassine.donationplatform.service.export;
+
+import com.yassine.donationplatform.config.ReplicaRoutingDataSource;
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.ExportFormat;
+import com.yassine.donationplatform.dto.ExportJobStatus;
+import com.yassine.donationplatform.dto.ExportKind;
+import com.yassine.donationplatform.dto.TaxReceiptStatus;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.entity.export.ExportJob;
+import com.yassine.donationplatform.entity.receipt.TaxReceipt;
+import com.yassine.donationplatform.repository.ExportJobRepository;
+import com.yassine.donationplatform.service.donation.DonationAdminService;
+import com.yassine.donationplatform.service.receipt.TaxReceiptAdminService;
+import com.yassine.donationplatform.util.CsvWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exécute un job d'export : lit la base en streaming (curseur serveur, fetch size borné)
+ * et écrit directement un fichier gzip dans le répertoire de stockage.
+ */
+@Component
+public class ExportJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobWorker.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ExportJobRepository jobs;
+    private final TransactionTemplate readOnlyTx;
+    private final JsonMapper jsonMapper;
+
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean draining;
+
+    @Value("${app.export.storage-dir:./storage/exports}")
+    private String storageDir;
+
+    @Value("${app.export.ttl-hours:24}")
+    private long ttlHours;
+
+    public ExportJobWorker(ExportJobRepository jobs, PlatformTransactionManager txManager, JsonMapper jsonMapper) {
+        this.jobs = jobs;
+        this.jsonMapper = jsonMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public void run(UUID jobId) {
+        // arrêt en cours : le job reste QUEUED, repris au prochain démarrage
+        if (draining) return;
+        if (jobs.claim(jobId, Instant.now()) == 0) return;
+        ExportJob job = jobs.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        running.add(jobId);
+        try {
+            execute(job);
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private void execute(ExportJob job) {
+        long start = System.nanoTime();
+        Path tmp = null;
+        try {
+            Path dir = Paths.get(storageDir).toAbsolutePath().normalize();
+            Files.createDirectories(dir);
+
+            Path out = dir.resolve(fileName(job));
+            tmp = dir.resolve(out.getFileName() + ".tmp");
+
+            long rows;
+            CountingOutputStream counting = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(counting, 64 * 1024)) {
+                // la lecture des lignes peut aller au réplica ; le suivi du job reste sur le primaire
+                rows = ReplicaRoutingDataSource.readFromReplica(() -> readOnlyTx.execute(tx -> write(job, gzip)));
+            }
+
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+
+            job.setBytes(counting.count);
+
+            job.setStatus(ExportJobStatus.DONE);
+            job.setFilePath(out.toString());
+            job.setRowCount(rows);
+            log.info("Export job {} done kind={} format={} rows={} bytes={}",
+                    job.getId(), job.getKind(), job.getFormat(), rows, job.getBytes());
+
+        } catch (Exception e) {
+            deleteQuietly(tmp);
+            if (draining) {
+                // interrompu par l'arrêt : pas un échec, le job repart de zéro au prochain démarrage
+                log.warn("Export job {} interrupted by shutdown, re-queued", job.getId());
+                Thread.interrupted(); // sinon Hikari refuse de prêter une connexion à ce thread
+                try {
+                    jobs.requeue(List.of(job.getId()));
+                } catch (RuntimeException requeueFailed) {
+                    log.debug("Export job {}: requeue left to the drain", job.getId(), requeueFailed);
+                }
+                return;
+            }
+            log.error("Export job {} FAILED", job.getId(), e);
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setError(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+
+        Instant now = Instant.now();
+        job.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        job.setFinishedAt(now);
+        job.setExpiresAt(now.plus(Duration.ofHours(ttlHours)));
+        jobs.save(job);
+    }
+
+    /** Plus de nouveau job : ceux encore en file seront repris au prochain démarrage. */
+    void stopTaking() {
+        draining = true;
+    }
+
+    boolean isDraining() {
+        return draining;
+    }
+
+    Set<UUID> runningJobs() {
+        return Set.copyOf(running);
+    }
+
+    private long write(ExportJob job, OutputStream out) {
+        try {
+            return job.getKind() == ExportKind.DONATIONS ? writeDonations(job, out) : writeReceipts(job, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeDonations(ExportJob job, OutputStream out) throws IOException {
+        DonationStatus status = job.getFilterStatus() == null ? null : DonationStatus.valueOf(job.getFilterStatus());
+        Specification<Donation> spec = DonationAdminService.filter(job.getFilterFrom(), job.getFilterTo(), status);
+
+        try (Stream<Donation> rows = stream(Donation.class, spec, "createdAt")) {
+            return writeRows(job.getFormat(), out, CsvWriter.DONATIONS_HEADER, rows,
+                    DonationAdminService::toRow, CsvWriter::appendDonation);
+        }
+    }
+
+    private long writeReceipts(ExportJob job, OutputStream out) throws IOException {
+        TaxReceiptStatus status = job.getFilterStatus() == null ? null : TaxReceiptStatus.valueOf(job.getFilterStatus());
+        Specification<TaxReceipt> spec = TaxReceiptAdminService.filter(job.getFilterFrom(), job.getFilterTo(), status);
+
+        try (Stream<TaxReceipt> rows = stream(TaxReceipt.class, spec, "requestedAt")) {
+            return writeRows(job.getFormat(), out, CsvWriter.RECEIPTS_HEADER, rows,
+                    TaxReceiptAdminService::toRow, CsvWriter::appendReceipt);
+        }
+    }
+
+    private <E, R> long writeRows(ExportFormat format, OutputStream out, String csvHeader, Stream<E> rows,
+                                  Function<E, R> mapper, CsvAppender<R> csv) throws IOException {
+        long[] count = {0};
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+        if (format == ExportFormat.NDJSON) {
+            SequenceWriter seq = jsonMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+            consume(rows, mapper, r -> {
+                seq.write(r);
+                count[0]++;
+            });
+            seq.flush();
+            if (count[0] > 0) writer.write('\n');
+        } else {
+            writer.write(csvHeader);
+            consume(rows, mapper, r -> {
+                csv.append(writer, r);
+                count[0]++;
+            });
+        }
+
+        writer.flush();
+        return count[0];
+    }
+
+    private <E, R> void consume(Stream<E> rows, Function<E, R> mapper, Consumer<R> sink) {
+        rows.forEach(e -> {
+            // interruption (drain à l'arrêt dépassé) : la lecture JDBC ne s'interrompt pas d'elle-même
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException("Export interrupted");
+            sink.accept(mapper.apply(e));
+            em.detach(e); // mémoire constante : on ne garde pas les entités dans le contexte
+        });
+    }
+
+    private <E> Stream<E> stream(Class<E> type, Specification<E> spec, String orderBy) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<E> cq = cb.createQuery(type);
+        Root<E> root = cq.from(type);
+        if (spec != null) {
+            cq.where(spec.toPredicate(root, cq, cb));
+        }
+        cq.orderBy(cb.asc(root.get(orderBy)));
+
+        return em.createQuery(cq)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static String fileName(ExportJob job) {
+        String ext = job.getFormat() == ExportFormat.NDJSON ? "ndjson" : "csv";
+        return job.getKind().name().toLowerCase() + "-" + job.getId() + "." + ext + ".gz";
+    }
+
+    private static void deleteQuietly(Path p) {
+        if (p == null) return;
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface CsvAppender<R> {
+        void append(Appendable out, R row);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.yassine.donationplatform.service.lifecycle;
+
+import com.yassine.donationplatform.observability.ReadinessMonitor;
+import com.yassine.donationplatform.service.export.ExportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Premier arrêté (phase max), avant l'arrêt gracieux de Tomcat :
+ * 1. readiness NOT READY, puis readiness-grace pour que le load balancer retire l'instance ;
+ * 2. exports : plus de nouveau job, ceux en cours finissent ou sont remis en file (export-drain-timeout).
+ * Ensuite Tomcat termine les requêtes en vol (reçus, PDF, mails, webhooks) dans la limite de
+ * spring.lifecycle.timeout-per-shutdown-phase. Ce qui reste est repris au démarrage suivant
+ * (cf. UnfinishedWorkRecovery).
+ */
+@Component
+public class ShutdownCoordinator implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ShutdownCoordinator.class);
+
+    private final ReadinessMonitor readiness;
+    private final ExportJobService exports;
+
+    @Value("${app.shutdown.readiness-grace:0s}")
+    private Duration readinessGrace;
+
+    @Value("${app.shutdown.export-drain-timeout:20s}")
+    private Duration exportDrainTimeout;
+
+    private volatile boolean running;
+
+    public ShutdownCoordinator(ReadinessMonitor readiness, ExportJobService exports) {
+        this.readiness = readiness;
+        this.exports = exports;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+
+        long start = System.nanoTime();
+        log.info("Shutdown: draining (readiness grace {}, export drain timeout {})", readinessGrace, exportDrainTimeout);
+
+        readiness.markDraining();
+        sleep(readinessGrace);
+        exports.drain(exportDrainTimeout);
+
+        log.info("Shutdown: drained in {}ms, closing web server", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    private static void sleep(Duration d) {
+        if (d.isZero() || d.isNegative()) return;
+        try {
+            Thread.sleep(d);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.yassine.donationplatform.service.lifecycle;
+
+import com.yassine.donationplatform.repository.TaxReceiptRepository;
+import com.yassine.donationplatform.service.donation.DonationImportService;
+import com.yassine.donationplatform.service.export.ExportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reprise du travail interrompu par un arrêt (propre ou non) :
+ * - au démarrage, jobs d'export QUEUED / RUNNING périmés resoumis ;
+ * - au démarrage puis périodiquement, fichiers .tmp abandonnés (PDF, exports) supprimés et reçus
+ *   bloqués en REQUESTED passés en FAILED (renvoi possible depuis l'admin), staging des imports
+ *   interrompus vidé.
+ * Seuils d'âge : plusieurs instances partagent la base et le stockage, on ne touche pas au travail
+ * en cours d'une autre instance.
+ */
+@Component
+public class UnfinishedWorkRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(UnfinishedWorkRecovery.class);
+
+    private final ExportJobService exports;
+    private final TaxReceiptRepository receipts;
+    private final DonationImportService imports;
+
+    @Value("${app.receipt.storage-dir:./storage/receipts}")
+    private String receiptDir;
+
+    @Value("${app.export.storage-dir:./storage/exports}")
+    private String exportDir;
+
+    @Value("${app.recovery.stale-tmp-after:5m}")
+    private Duration staleTmpAfter;
+
+    @Value("${app.recovery.stuck-receipt-after:15m}")
+    private Duration stuckReceiptAfter;
+
+    @Value("${app.recovery.stale-export-after:1h}")
+    private Duration staleExportAfter;
+
+    @Value("${app.recovery.stale-import-after:1h}")
+    private Duration staleImportAfter;
+
+    public UnfinishedWorkRecovery(ExportJobService exports, TaxReceiptRepository receipts,
+                                  DonationImportService imports) {
+        this.exports = exports;
+        this.receipts = receipts;
+        this.imports = imports;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        exports.recoverUnfinished(staleExportAfter);
+        sweep();
+    }
+
+    @Scheduled(fixedDelayString = "${app.recovery.interval-ms:600000}",
+            initialDelayString = "${app.recovery.interval-ms:600000}")
+    public void sweep() {
+        int failed = receipts.failStuckRequested(Instant.now().minus(stuckReceiptAfter));
+        if (failed > 0) {
+            log.warn("Recovery: {} receipt(s) stuck in REQUESTED marked FAILED", failed);
+        }
+
+        int staged = imports.purgeStaleStaging(Instant.now().minus(staleImportAfter));
+        if (staged > 0) {
+            log.info("Recovery: {} staged import row(s) of interrupted imports deleted", staged);
+        }
+
+        int deleted = deleteStaleTmp(receiptDir) + deleteStaleTmp(exportDir);
+        if (deleted > 0) {
+            log.info("Recovery: {} stale .tmp file(s) deleted", deleted);
+        }
+    }
+
+    private int deleteStaleTmp(String storageDir) {
+        Path dir = Paths.get(storageDir).toAbsolutePath().normalize();
+        if (!Files.isDirectory(dir)) return 0;
+
+        Instant cutoff = Instant.now().minus(staleTmpAfter);
+        int deleted = 0;
+        try (DirectoryStream<Path> tmps = Files.newDirectoryStream(dir, "*.tmp")) {
+            for (Path tmp : tmps) {
+                try {
+                    if (Files.getLastModifiedTime(tmp).toInstant().isBefore(cutoff) && Files.deleteIfExists(tmp)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Recovery: cannot delete {}", tmp, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Recovery: cannot list {}", dir, e);
+        }
+        return deleted;
+    }
+}
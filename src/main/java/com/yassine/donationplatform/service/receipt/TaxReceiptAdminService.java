@@ -1,29 +1,122 @@
 package com.yassine.donationplatform.service.receipt;
 
+import com.yassine.donationplatform.config.ReplicaRead;
 import com.yassine.donationplatform.entity.receipt.TaxReceipt;
 import com.yassine.donationplatform.dto.TaxReceiptStatus;
 import com.yassine.donationplatform.dto.response.ReceiptAdminRowResponse;
 import com.yassine.donationplatform.repository.TaxReceiptRepository;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.util.AdminSearch;
 import com.yassine.donationplatform.util.EmailMasker;
+import com.yassine.donationplatform.util.PageJsonWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@ReplicaRead
 public class TaxReceiptAdminService {
 
     private final TaxReceiptRepository repo;
 
-    public TaxReceiptAdminService(TaxReceiptRepository repo) {
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JsonMapper jsonMapper;
+    private final Timer listTimer;
+
+    public TaxReceiptAdminService(TaxReceiptRepository repo, JsonMapper jsonMapper, MeterRegistry registry) {
         this.repo = repo;
+        this.jsonMapper = jsonMapper;
+        this.listTimer = registry.timer("admin.list", "entity", "receipts");
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ReceiptAdminRowResponse> listPage(LocalDate from, LocalDate to, TaxReceiptStatus status,
+                                                  String q, int page, int size) {
+
+        Specification<TaxReceipt> spec = and(filter(from, to, status), search(q));
+
+        int safeSize = Math.min(Math.max(size, 1), 200);
+        int safePage = Math.max(page, 0);
+
+        Pageable pageable = PageRequest.of(
+                safePage,
+                safeSize,
+                Sort.by("requestedAt").descending()
+        );
+
+        Page<TaxReceipt> receiptPage = (spec == null)
+                ? repo.findAll(pageable)
+                : repo.findAll(spec, pageable);
+
+        return receiptPage.map(TaxReceiptAdminService::toRow);
     }
 
-    public Page<ReceiptAdminRowResponse> listPage(LocalDate from, LocalDate to, TaxReceiptStatus status, int page, int size) {
+    /**
+     * Même page que {@link #listPage}, sérialisée au fil du curseur dans {@code out}
+     * (format JSON de PageResponse) sans passer par Page / List / PageResponse.
+     */
+    @Transactional(readOnly = true)
+    public void writePage(LocalDate from, LocalDate to, TaxReceiptStatus status, String q, int page, int size,
+                          OutputStream out) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Specification<TaxReceipt> spec = and(filter(from, to, status), search(q));
+
+            int safeSize = Math.min(Math.max(size, 1), 200);
+            int safePage = Math.max(page, 0);
+
+            long total = (spec == null) ? repo.count() : repo.count(spec);
+            boolean beyondEnd = (long) safePage * safeSize >= total;
+
+            try (JsonGenerator gen = jsonMapper.createGenerator(out);
+                 Stream<TaxReceipt> rows = beyondEnd ? Stream.empty() : streamPage(spec, safePage, safeSize)) {
+                PageJsonWriter.write(gen, rows, TaxReceiptAdminService::writeRow, safePage, safeSize, total);
+            }
+        } finally {
+            sample.stop(listTimer);
+        }
+    }
+
+    private Stream<TaxReceipt> streamPage(Specification<TaxReceipt> spec, int page, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TaxReceipt> cq = cb.createQuery(TaxReceipt.class);
+        Root<TaxReceipt> root = cq.from(TaxReceipt.class);
+        if (spec != null) {
+            cq.where(spec.toPredicate(root, cq, cb));
+        }
+        cq.orderBy(cb.desc(root.get("requestedAt")));
+
+        return em.createQuery(cq)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, size)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
 
+    /** Filtres communs à la liste paginée et aux exports. Retourne null si aucun filtre. */
+    public static Specification<TaxReceipt> filter(LocalDate from, LocalDate to, TaxReceiptStatus status) {
         Specification<TaxReceipt> spec = null;
 
         if (from != null) {
@@ -40,20 +133,51 @@ public class TaxReceiptAdminService {
             spec = and(spec, (root, q, cb) -> cb.equal(root.get("status"), status));
         }
 
-        int safeSize = Math.min(Math.max(size, 1), 200);
-        int safePage = Math.max(page, 0);
+        return spec;
+    }
 
-        Pageable pageable = PageRequest.of(
-                safePage,
-                safeSize,
-                Sort.by("requestedAt").descending()
-        );
+    /**
+     * Recherche donateur : id du reçu ou du don, numéro de reçu, session / payment intent Stripe
+     * (égalité), email ou nom du donateur (sous-chaîne, index trigram). Retourne null si q est vide.
+     */
+    public static Specification<TaxReceipt> search(String rawQuery) {
+        String q = AdminSearch.normalize(rawQuery);
+        if (q == null) return null;
 
-        Page<TaxReceipt> receiptPage = (spec == null)
-                ? repo.findAll(pageable)
-                : repo.findAll(spec, pageable);
+        UUID id = AdminSearch.uuidOrNull(q);
+        if (id != null) {
+            return (root, query, cb) -> cb.or(cb.equal(root.get("id"), id), cb.equal(root.get("donationId"), id));
+        }
+
+        Long receiptNumber = AdminSearch.receiptNumberOrNull(q);
+        if (receiptNumber != null) {
+            return (root, query, cb) -> cb.equal(root.get("receiptNumber"), receiptNumber);
+        }
+
+        if (AdminSearch.isStripeSessionId(q) || AdminSearch.isStripePaymentIntentId(q)) {
+            String field = AdminSearch.isStripeSessionId(q) ? "stripeCheckoutSessionId" : "stripePaymentIntentId";
+            return (root, query, cb) -> {
+                Subquery<UUID> sub = query.subquery(UUID.class);
+                Root<Donation> d = sub.from(Donation.class);
+                sub.select(d.get("id")).where(cb.equal(d.get(field), q));
+                return root.get("donationId").in(sub);
+            };
+        }
+
+        if (AdminSearch.isEmail(q)) {
+            String email = q.toLowerCase();
+            return (root, query, cb) -> cb.equal(cb.lower(root.get("email")), email);
+        }
 
-        return receiptPage.map(r -> new ReceiptAdminRowResponse(
+        String pattern = AdminSearch.containsPattern(q);
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("email")), pattern, AdminSearch.LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("donorFullName")), pattern, AdminSearch.LIKE_ESCAPE)
+        );
+    }
+
+    public static ReceiptAdminRowResponse toRow(TaxReceipt r) {
+        return new ReceiptAdminRowResponse(
                 r.getId(),
                 r.getDonationId(),
                 r.getReceiptNumber(),
@@ -61,10 +185,24 @@ public class TaxReceiptAdminService {
                 EmailMasker.mask(r.getEmail()),
                 r.getRequestedAt(),
                 r.getIssuedAt()
-        ));
+        );
+    }
+
+    static void writeRow(JsonGenerator gen, TaxReceipt r) {
+        gen.writeStartObject();
+        PageJsonWriter.writeStringOrNull(gen, "id", r.getId());
+        PageJsonWriter.writeStringOrNull(gen, "donationId", r.getDonationId());
+        if (r.getReceiptNumber() == null) gen.writeNullProperty("receiptNumber");
+        else gen.writeNumberProperty("receiptNumber", r.getReceiptNumber().longValue());
+        PageJsonWriter.writeStringOrNull(gen, "status", r.getStatus());
+        PageJsonWriter.writeStringOrNull(gen, "emailMasked", EmailMasker.mask(r.getEmail()));
+        PageJsonWriter.writeStringOrNull(gen, "requestedAt", r.getRequestedAt());
+        PageJsonWriter.writeStringOrNull(gen, "issuedAt", r.getIssuedAt());
+        gen.writeEndObject();
     }
 
     private static <T> Specification<T> and(Specification<T> base, Specification<T> add) {
+        if (add == null) return base;
         return base == null ? add : base.and(add);
     }
 }
@@ -1,6 +1,10 @@
 package com.yassine.donationplatform.service.receipt;
 
 import com.yassine.donationplatform.entity.receipt.TaxReceipt;
+import com.yassine.donationplatform.observability.RequestTimings;
+import com.yassine.donationplatform.service.concurrency.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
@@ -9,11 +13,14 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
+import java.time.Duration;
 
 @Service
 public class TaxReceiptEmailService {
 
     private final JavaMailSender mailSender;
+    private final Timer sendTimer;
+    private final Bulkhead bulkhead;
 
     @Value("${app.mail.from:no-reply@example.com}")
     private String from;
@@ -21,11 +28,22 @@ public class TaxReceiptEmailService {
     @Value("${app.receipt.org-name:Association}")
     private String orgName;
 
-    public TaxReceiptEmailService(JavaMailSender mailSender) {
+    public TaxReceiptEmailService(JavaMailSender mailSender, MeterRegistry registry,
+                                  @Value("${app.mail.max-concurrent-sends:8}") int maxConcurrentSends,
+                                  @Value("${app.mail.max-wait:5s}") Duration maxWait) {
         this.mailSender = mailSender;
+        this.sendTimer = registry.timer("receipt.email.send");
+        this.bulkhead = new Bulkhead("smtp", maxConcurrentSends, maxWait, registry);
     }
 
     public void sendReceipt(TaxReceipt receipt, Path pdfPath) {
+        // l'attente d'un permis compte dans le span smtp (c'est du temps perdu à cause du serveur mail)
+        try (RequestTimings.Span ignored = RequestTimings.start(RequestTimings.SMTP)) {
+            bulkhead.run(() -> sendTimer.record(() -> doSendReceipt(receipt, pdfPath)));
+        }
+    }
+
+    private void doSendReceipt(TaxReceipt receipt, Path pdfPath) {
         try {
             MimeMessage msg = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(msg, true, "UTF-8");
@@ -2,6 +2,9 @@ package com.yassine.donationplatform.service.receipt;
 
 import com.yassine.donationplatform.entity.donation.Donation;
 import com.yassine.donationplatform.entity.receipt.TaxReceipt;
+import com.yassine.donationplatform.observability.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -43,7 +46,19 @@ public class TaxReceiptPdfService {
     @Value("${app.receipt.org-email:}")
     private String orgEmail;
 
+    private final Timer generateTimer;
+
+    public TaxReceiptPdfService(MeterRegistry registry) {
+        this.generateTimer = registry.timer("receipt.pdf.generate");
+    }
+
     public Path generatePdf(TaxReceipt receipt, Donation donation) {
+        try (RequestTimings.Span ignored = RequestTimings.start(RequestTimings.PDF)) {
+            return generateTimer.record(() -> doGeneratePdf(receipt, donation));
+        }
+    }
+
+    private Path doGeneratePdf(TaxReceipt receipt, Donation donation) {
         try {
             Path dir = Paths.get(storageDir).toAbsolutePath().normalize();
             Files.createDirectories(dir);
@@ -1,5 +1,6 @@
 package com.yassine.donationplatform.service.receipt;
 
+import com.yassine.donationplatform.config.ReplicaRoutingDataSource;
 import com.yassine.donationplatform.entity.donation.Donation;
 import com.yassine.donationplatform.dto.DonationStatus;
 import com.yassine.donationplatform.entity.receipt.TaxReceipt;
@@ -60,6 +61,7 @@ public class TaxReceiptService {
         TaxReceipt receipt = receiptRepo.findByDonationId(donationId)
                 .orElseGet(() -> TaxReceipt.builder()
                         .donationId(donationId)
+                        .donationCreatedAt(donation.getCreatedAt())
                         .status(TaxReceiptStatus.REQUESTED)
                         .requestedAt(Instant.now())
                         .build());
@@ -100,7 +102,7 @@ public class TaxReceiptService {
         TaxReceipt receipt = receiptRepo.findById(receiptId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Receipt not found"));
 
-        Donation donation = donationService.findById(receipt.getDonationId())
+        Donation donation = donationService.findByKey(receipt.getDonationId(), receipt.getDonationCreatedAt())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Donation not found"));
 
         if (donation.getStatus() != DonationStatus.PAID) {
@@ -131,7 +133,7 @@ public class TaxReceiptService {
         TaxReceipt receipt = receiptRepo.findById(receiptId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Receipt not found"));
 
-        Donation donation = donationService.findById(receipt.getDonationId())
+        Donation donation = donationService.findByKey(receipt.getDonationId(), receipt.getDonationCreatedAt())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Donation not found"));
 
         if (donation.getStatus() != DonationStatus.PAID) {
@@ -160,7 +162,9 @@ public class TaxReceiptService {
     }
 
     public ReceiptResponse getById(UUID id) {
-        TaxReceipt r = receiptRepo.findById(id)
+        // réplica d'abord, primaire si le reçu vient d'être demandé et n'y est pas encore
+        TaxReceipt r = ReplicaRoutingDataSource.readFromReplica(() -> receiptRepo.findById(id))
+                .or(() -> receiptRepo.findById(id))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Receipt not found"));
         return toResponse(r);
     }
@@ -4,12 +4,40 @@ import com.stripe.Stripe;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
 import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.observability.RequestTimings;
+import com.yassine.donationplatform.service.concurrency.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
 
 @Service
 public class StripeCheckoutService {
 
+    private final MeterRegistry registry;
+    private final StripeCircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public StripeCheckoutService(MeterRegistry registry, StripeCircuitBreaker circuitBreaker,
+                                 @Value("${app.stripe.max-concurrent-calls:32}") int maxConcurrentCalls,
+                                 @Value("${app.stripe.max-wait:2s}") Duration maxWait) {
+        this.registry = registry;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Bulkhead("stripe", maxConcurrentCalls, maxWait, registry);
+    }
+
+    @PostConstruct
+    void init() {
+        if (apiBase != null && !apiBase.isBlank()) {
+            Stripe.overrideApiBase(apiBase);
+        }
+    }
+
     @Value("${app.stripe.secret-key}")
     private String stripeSecretKey;
 
@@ -19,7 +47,44 @@ public class StripeCheckoutService {
     @Value("${app.stripe.cancel-url}")
     private String cancelUrlTemplate;
 
+    // vide = API Stripe réelle ; sinon stub local (load-harness)
+    @Value("${app.stripe.api-base:}")
+    private String apiBase;
+
+    /** Refus immédiat (503) tant que le disjoncteur Stripe est ouvert. */
+    public void ensureAvailable() {
+        if (circuitBreaker.state() == StripeCircuitBreaker.State.OPEN) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Payment provider unavailable");
+        }
+    }
+
     public Session createCheckoutSession(Donation donation) throws Exception {
+        // bulkhead d'abord : un refus ici ne doit pas consommer l'appel d'essai du disjoncteur
+        return bulkhead.call(() -> guardedCreate(donation));
+    }
+
+    private Session guardedCreate(Donation donation) throws Exception {
+        if (!circuitBreaker.tryAcquire()) {
+            registry.counter("stripe.checkout.create.rejected").increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Payment provider unavailable");
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try (RequestTimings.Span ignored = RequestTimings.start(RequestTimings.STRIPE)) {
+            Session session = doCreateCheckoutSession(donation);
+            circuitBreaker.onSuccess();
+            outcome = "success";
+            return session;
+        } catch (Exception e) {
+            circuitBreaker.onError(e);
+            throw e;
+        } finally {
+            sample.stop(registry.timer("stripe.checkout.create", "outcome", outcome));
+        }
+    }
+
+    private Session doCreateCheckoutSession(Donation donation) throws Exception {
         Stripe.apiKey = stripeSecretKey;
 
         String successUrl = successUrlTemplate.replace("{DONATION_ID}", donation.getId().toString());
@@ -0,0 +1,100 @@
+package com.yassine.donationplatform.service.stripe;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Disjoncteur minimal devant l'API Stripe : après N échecs "indisponibilité" consécutifs
+ * (connexion, 5xx, 429), on refuse les appels pendant open-duration, puis un seul appel d'essai.
+ * Les erreurs métier (carte refusée, requête invalide) prouvent que Stripe répond : elles comptent comme un succès.
+ */
+@Component
+public class StripeCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public StripeCircuitBreaker(
+            @Value("${app.stripe.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${app.stripe.circuit.open-duration:30s}") Duration openDuration
+    ) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /** Vrai si l'appel peut partir ; en HALF_OPEN, un seul appel d'essai à la fois. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) yield false;
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Stripe circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public void onError(Throwable e) {
+        if (isAvailabilityFailure(e)) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Stripe circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    static boolean isAvailabilityFailure(Throwable e) {
+        return e instanceof ApiConnectionException
+                || e instanceof ApiException
+                || e instanceof RateLimitException
+                || e instanceof java.io.IOException;
+    }
+}
@@ -1,73 +1,107 @@
 package com.yassine.donationplatform.service.stripe;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stripe.model.Event;
-import com.yassine.donationplatform.entity.donation.Donation;
-import com.yassine.donationplatform.dto.DonationStatus;
-import com.yassine.donationplatform.service.donation.DonationService;
+import com.yassine.donationplatform.service.donation.DonationStateMachine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class StripeWebhookService {
 
     private static final Logger log = LoggerFactory.getLogger(StripeWebhookService.class);
 
-    private final DonationService donationService;
+    private final DonationStateMachine stateMachine;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
 
-    public StripeWebhookService(DonationService donationService, ObjectMapper objectMapper) {
-        this.donationService = donationService;
+    public StripeWebhookService(DonationStateMachine stateMachine, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.stateMachine = stateMachine;
         this.objectMapper = objectMapper;
+        this.registry = registry;
     }
 
     @Transactional
     public void handle(Event event) {
         log.info("Stripe webhook received type={}", event.getType());
 
-        if ("checkout.session.completed".equals(event.getType())) {
-            handleCheckoutCompleted(event);
+        // retard Stripe -> nous (event.created est en secondes)
+        if (event.getCreated() != null) {
+            long lagMs = Math.max(0, System.currentTimeMillis() - event.getCreated() * 1000);
+            registry.timer("stripe.webhook.lag", "type", event.getType()).record(lagMs, TimeUnit.MILLISECONDS);
         }
-    }
 
-    private void handleCheckoutCompleted(Event event) {
+        Timer.Sample sample = Timer.start(registry);
         try {
-            String rawJson = event.getDataObjectDeserializer().getRawJson();
-            JsonNode root = objectMapper.readTree(rawJson);
+            JsonNode object = dataObject(event);
+            if (object == null) return;
+
+            // transitions gardées : un rejeu ou un événement arrivé dans le désordre ne change rien
+            switch (event.getType()) {
+                case "checkout.session.completed" -> handleCheckoutCompleted(object);
+                case "checkout.session.expired" -> handleCheckoutExpired(object);
+                case "charge.refunded" -> handleChargeRefunded(object);
+                default -> { }
+            }
+        } finally {
+            sample.stop(registry.timer("stripe.webhook.handle", "type", event.getType()));
+        }
+    }
 
-            String sessionId = textOrNull(root, "id");
-            String paymentStatus = textOrNull(root, "payment_status");
-            String paymentIntent = textOrNull(root, "payment_intent");
-            String donationIdStr = root.path("metadata").path("donationId").asText(null);
+    private void handleCheckoutCompleted(JsonNode session) {
+        UUID donationId = donationId(session);
+        if (donationId == null) return;
 
-            if (donationIdStr == null || donationIdStr.isBlank()) {
-                return;
-            }
+        String sessionId = textOrNull(session, "id");
+        if ("paid".equalsIgnoreCase(textOrNull(session, "payment_status"))) {
+            stateMachine.markPaid(donationId, sessionId, textOrNull(session, "payment_intent"));
+        } else {
+            stateMachine.markFailed(donationId, sessionId);
+        }
+    }
 
-            Donation donation = donationService.findById(UUID.fromString(donationIdStr)).orElse(null);
-            if (donation == null) {
-                return;
-            }
+    private void handleCheckoutExpired(JsonNode session) {
+        UUID donationId = donationId(session);
+        if (donationId == null) return;
 
-            if (donation.getStripeCheckoutSessionId() == null && sessionId != null) {
-                donation.setStripeCheckoutSessionId(sessionId);
-            }
+        stateMachine.markCanceled(donationId, textOrNull(session, "id"));
+    }
 
-            if ("paid".equalsIgnoreCase(paymentStatus)) {
-                donation.setStatus(DonationStatus.PAID);
-                donation.setStripePaymentIntentId(paymentIntent);
-            } else {
-                donation.setStatus(DonationStatus.FAILED);
-            }
+    private void handleChargeRefunded(JsonNode charge) {
+        String paymentIntent = textOrNull(charge, "payment_intent");
+        // remboursement partiel : le don reste PAID
+        if (paymentIntent == null || !charge.path("refunded").asBoolean(false)) return;
+
+        stateMachine.markRefunded(paymentIntent);
+    }
 
-            donationService.save(donation);
+    /** Payload illisible : ignoré (un renvoi par Stripe ne le rendra pas lisible). */
+    private JsonNode dataObject(Event event) {
+        try {
+            return objectMapper.readTree(event.getDataObjectDeserializer().getRawJson());
+        } catch (JsonProcessingException e) {
+            log.warn("Stripe webhook {} ignored: unreadable payload", event.getId());
+            return null;
+        }
+    }
 
-        } catch (Exception e) {
+    private static UUID donationId(JsonNode session) {
+        String value = session.path("metadata").path("donationId").asText(null);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            log.warn("Stripe webhook ignored: invalid donationId metadata {}", value);
+            return null;
         }
     }
 
@@ -0,0 +1,46 @@
+package com.yassine.donationplatform.util;
+
+import java.util.Locale;
+
+/**
+ * Négociation Accept-Encoding (RFC 9110 §12.5.3) : un codage est accepté s'il est listé avec q &gt; 0,
+ * ou couvert par "*" avec q &gt; 0 sans être listé lui-même. {@code gzip;q=0} le refuse explicitement.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {}
+
+    public static boolean accepts(String header, String coding) {
+        if (header == null || header.isBlank()) return false;
+
+        Double explicit = null;
+        Double wildcard = null;
+        for (String part : header.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = quality(params);
+            if (name.equals(coding) || (coding.equals("gzip") && name.equals("x-gzip"))) {
+                explicit = explicit == null ? q : Math.max(explicit, q);
+            } else if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        if (explicit != null) return explicit > 0;
+        return wildcard != null && wildcard > 0;
+    }
+
+    // q absent ou illisible : 1 (un client qui écrit "gzip;q=abc" voulait au moins gzip)
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String p = params[i].trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(p.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,66 @@
+package com.yassine.donationplatform.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Classe le paramètre q des listes admin pour choisir la requête indexée adaptée :
+ * égalité (B-tree) pour les identifiants et emails complets, trigram pour le reste.
+ */
+public final class AdminSearch {
+    private AdminSearch() {}
+
+    public static final int MIN_LENGTH = 3; // en dessous, le trigram ne peut pas servir
+    public static final char LIKE_ESCAPE = '\\';
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern RECEIPT_NUMBER = Pattern.compile("^(?:CERFA-)?0*(\\d{1,18})$", Pattern.CASE_INSENSITIVE);
+
+    public static String normalize(String q) {
+        if (q == null) return null;
+        String s = q.trim();
+        if (s.isEmpty()) return null;
+        if (s.length() < MIN_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search must be at least " + MIN_LENGTH + " characters");
+        }
+        return s;
+    }
+
+    public static UUID uuidOrNull(String q) {
+        if (q.length() != 36) return null;
+        try {
+            return UUID.fromString(q);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static Long receiptNumberOrNull(String q) {
+        var m = RECEIPT_NUMBER.matcher(q);
+        return m.matches() ? Long.parseLong(m.group(1)) : null;
+    }
+
+    public static boolean isStripeSessionId(String q) {
+        return q.startsWith("cs_");
+    }
+
+    public static boolean isStripePaymentIntentId(String q) {
+        return q.startsWith("pi_");
+    }
+
+    public static boolean isEmail(String q) {
+        return EMAIL.matcher(q).matches();
+    }
+
+    /** Motif '%q%' en minuscules, avec % et _ échappés. */
+    public static String containsPattern(String q) {
+        String escaped = q.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,49 @@
+package com.yassine.donationplatform.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Découpage d'une ligne CSV (guillemets doublés, séparateur ';' ou ',').
+ * Un champ entre guillemets ne peut pas contenir de retour à la ligne : l'import lit ligne à ligne.
+ */
+public final class CsvReader {
+    private CsvReader() {}
+
+    /** Séparateur d'un fichier d'après son en-tête : ';' (Excel FR, nos exports) sauf s'il n'y en a aucun. */
+    public static char detectSeparator(String header) {
+        return header.indexOf(';') >= 0 || header.indexOf(',') < 0 ? ';' : ',';
+    }
+
+    /** @throws IllegalArgumentException si un guillemet n'est pas refermé */
+    public static List<String> split(String line, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
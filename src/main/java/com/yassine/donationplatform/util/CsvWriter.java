@@ -1,8 +1,12 @@
 package com.yassine.donationplatform.util;
 
 import com.yassine.donationplatform.dto.response.DonationAdminRowResponse;
+import com.yassine.donationplatform.dto.response.ReceiptAdminRowResponse;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -12,23 +16,58 @@ public final class CsvWriter {
 
     private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneOffset.UTC);
 
+    public static final String DONATIONS_HEADER =
+            "id;date_utc;amount_cents;currency;status;provider;payment_method;email_masked\n";
+
+    public static final String RECEIPTS_HEADER =
+            "id;donation_id;receipt_number;status;email_masked;requested_at_utc;issued_at_utc\n";
+
     public static byte[] donationsToCsv(List<DonationAdminRowResponse> rows) {
         StringBuilder sb = new StringBuilder();
-        sb.append("id;date_utc;amount_cents;currency;status;provider;payment_method;email_masked\n");
+        sb.append(DONATIONS_HEADER);
 
         for (DonationAdminRowResponse r : rows) {
-            sb.append(r.getId()).append(';')
+            appendDonation(sb, r);
+        }
+
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // variantes ligne à ligne pour les exports en streaming
+
+    public static void appendDonation(Appendable out, DonationAdminRowResponse r) {
+        try {
+            out.append(String.valueOf(r.getId())).append(';')
                     .append(ISO.format(r.getCreatedAt())).append(';')
-                    .append(r.getAmountCents()).append(';')
+                    .append(String.valueOf(r.getAmountCents())).append(';')
                     .append(escape(r.getCurrency())).append(';')
-                    .append(r.getStatus()).append(';')
-                    .append(r.getProvider()).append(';')
-                    .append(r.getPaymentMethod()).append(';')
+                    .append(String.valueOf(r.getStatus())).append(';')
+                    .append(String.valueOf(r.getProvider())).append(';')
+                    .append(String.valueOf(r.getPaymentMethod())).append(';')
                     .append(escape(r.getEmailMasked()))
                     .append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    public static void appendReceipt(Appendable out, ReceiptAdminRowResponse r) {
+        try {
+            out.append(String.valueOf(r.getId())).append(';')
+                    .append(String.valueOf(r.getDonationId())).append(';')
+                    .append(r.getReceiptNumber() == null ? "" : r.getReceiptNumber().toString()).append(';')
+                    .append(String.valueOf(r.getStatus())).append(';')
+                    .append(escape(r.getEmailMasked())).append(';')
+                    .append(formatInstant(r.getRequestedAt())).append(';')
+                    .append(formatInstant(r.getIssuedAt()))
+                    .append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String formatInstant(Instant v) {
+        return v == null ? "" : ISO.format(v);
     }
 
     private static String escape(String v) {
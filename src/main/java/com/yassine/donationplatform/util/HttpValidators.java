@@ -0,0 +1,28 @@
+package com.yassine.donationplatform.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ETags faibles calculés depuis la version métier (id, statut, updated_at...) :
+ * pas besoin de sérialiser ni de bufferiser le corps pour répondre 304.
+ */
+public final class HttpValidators {
+
+    private HttpValidators() {}
+
+    public static String weakEtag(Object... versionParts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : versionParts) {
+            sb.append(part).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yassine.donationplatform.util;
+
+import tools.jackson.core.JsonGenerator;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Écrit une page au format JSON de {@code PageResponse} directement dans un JsonGenerator,
+ * ligne par ligne, sans matérialiser de liste de DTO.
+ * L'ordre des champs doit rester celui de PageResponse (sortie octet pour octet identique).
+ */
+public final class PageJsonWriter {
+    private PageJsonWriter() {}
+
+    @FunctionalInterface
+    public interface RowWriter<E> {
+        void write(JsonGenerator gen, E row);
+    }
+
+    public static <E> void write(JsonGenerator gen, Stream<E> rows, RowWriter<E> rowWriter,
+                                 int page, int size, long totalElements) {
+        // mêmes règles que PageImpl
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) size);
+
+        gen.writeStartObject();
+
+        gen.writeName("items");
+        gen.writeStartArray();
+        Iterator<E> it = rows.iterator();
+        while (it.hasNext()) {
+            rowWriter.write(gen, it.next());
+        }
+        gen.writeEndArray();
+
+        gen.writeNumberProperty("page", page);
+        gen.writeNumberProperty("size", size);
+        gen.writeNumberProperty("totalElements", totalElements);
+        gen.writeNumberProperty("totalPages", totalPages);
+        gen.writeBooleanProperty("first", page == 0);
+        gen.writeBooleanProperty("last", page + 1 >= totalPages);
+
+        gen.writeEndObject();
+    }
+
+    public static void writeStringOrNull(JsonGenerator gen, String name, Object value) {
+        if (value == null) gen.writeNullProperty(name);
+        else gen.writeStringProperty(name, value.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.yassine.donationplatform.util;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * UUIDv7 (RFC 9562) : les 48 premiers bits sont un instant en millisecondes, le reste aléatoire
+ * (74 bits, SecureRandom : l'id d'un don est public). Un id v7 de don porte son created_at à la
+ * milliseconde, clé de partition de donation (V11).
+ */
+public final class UuidV7 {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {}
+
+    public static UUID generate(Instant at) {
+        long msb = (at.toEpochMilli() << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFF);
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** Milliseconde encodée dans un id v7, vide pour les autres versions (v4 des dons antérieurs à V14). */
+    public static Optional<Instant> timestamp(UUID id) {
+        if (id.version() != 7 || id.variant() != 2) return Optional.empty();
+        return Optional.of(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16));
+    }
+}
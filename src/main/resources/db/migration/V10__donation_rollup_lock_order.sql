@@ -0,0 +1,35 @@
+-- Un UPDATE qui change de clé d'agrégat verrouille deux lignes de donation_daily_rollup.
+-- Deux transactions de sens opposés (PENDING -> PAID et PAID -> PENDING le même jour) les prenaient
+-- dans l'ordre inverse l'une de l'autre : deadlock sous charge. On applique toujours les deltas
+-- dans l'ordre de la clé primaire.
+create or replace function donation_rollup_trigger() returns trigger as $$
+declare
+  old_day date;
+  new_day date;
+begin
+  if tg_op = 'INSERT' then
+    perform donation_rollup_apply((new.created_at at time zone 'UTC')::date, new.status, new.payment_method,
+                                  new.currency, 1, new.amount_cents);
+    return null;
+  end if;
+
+  old_day := (old.created_at at time zone 'UTC')::date;
+
+  if tg_op = 'DELETE' then
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+    return null;
+  end if;
+
+  new_day := (new.created_at at time zone 'UTC')::date;
+
+  if (old_day, old.status, old.payment_method, old.currency)
+       <= (new_day, new.status, new.payment_method, new.currency) then
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+    perform donation_rollup_apply(new_day, new.status, new.payment_method, new.currency, 1, new.amount_cents);
+  else
+    perform donation_rollup_apply(new_day, new.status, new.payment_method, new.currency, 1, new.amount_cents);
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+  end if;
+  return null;
+end;
+$$ language plpgsql;
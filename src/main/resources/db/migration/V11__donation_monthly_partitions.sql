@@ -0,0 +1,110 @@
+-- donation partitionnée par mois de created_at (UTC) : les listes admin bornées dans le temps ne lisent
+-- que les partitions concernées, et vacuum / index travaillent par mois.
+-- La clé primaire doit contenir la clé de partition : (id, created_at). tax_receipt référence donc
+-- (donation_id, donation_created_at).
+
+alter table tax_receipt drop constraint tax_receipt_donation_id_fkey;
+
+alter table donation rename to donation_unpartitioned;
+alter table donation_unpartitioned drop constraint donation_pkey;
+drop index idx_donation_created_at;
+drop index idx_donation_status;
+drop index idx_donation_stripe_session;
+drop index ix_donation_email_trgm;
+drop index ix_donation_email_lower;
+drop index ix_donation_stripe_payment_intent;
+
+create table donation (
+  id uuid not null,
+  amount_cents integer not null,
+  currency varchar(3) not null,
+  status varchar(20) not null,
+  provider varchar(20) not null,
+  payment_method varchar(20) not null,
+  email varchar(320),
+  stripe_checkout_session_id varchar(255),
+  stripe_payment_intent_id varchar(255),
+  created_at timestamptz not null,
+  updated_at timestamptz not null,
+  primary key (id, created_at)
+) partition by range (created_at);
+
+-- filet de sécurité : une ligne hors des mois créés n'échoue pas à l'insert (surveillée par la maintenance)
+create table donation_default partition of donation default;
+
+-- crée la partition du mois de p_month si besoin ; appelée aussi par DonationPartitionMaintenance
+create or replace function donation_ensure_partition(p_month date) returns text as $$
+declare
+  v_from date := date_trunc('month', p_month)::date;
+  v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+  v_name text := format('donation_p%s', to_char(v_from, 'YYYY_MM'));
+begin
+  -- plusieurs instances peuvent lancer la maintenance en même temps
+  perform pg_advisory_xact_lock(hashtext('donation_ensure_partition'));
+  if to_regclass(v_name) is null then
+    execute format('create table %I partition of donation for values from (%L) to (%L)',
+                   v_name, v_from::timestamp at time zone 'UTC', v_to::timestamp at time zone 'UTC');
+  end if;
+  return v_name;
+end;
+$$ language plpgsql;
+
+-- partitions de l'historique existant jusqu'à 3 mois dans le futur
+do $$
+declare
+  m date := coalesce(
+    (select date_trunc('month', min(created_at) at time zone 'UTC') from donation_unpartitioned),
+    date_trunc('month', now() at time zone 'UTC'))::date;
+  last_month date := (date_trunc('month', now() at time zone 'UTC') + interval '3 months')::date;
+begin
+  while m <= last_month loop
+    perform donation_ensure_partition(m);
+    m := (m + interval '1 month')::date;
+  end loop;
+end;
+$$;
+
+-- copie avant index et triggers : ni maintenance d'index ligne à ligne, ni double comptage dans l'agrégat
+insert into donation(id, amount_cents, currency, status, provider, payment_method, email,
+                     stripe_checkout_session_id, stripe_payment_intent_id, created_at, updated_at)
+select id, amount_cents, currency, status, provider, payment_method, email,
+       stripe_checkout_session_id, stripe_payment_intent_id, created_at, updated_at
+from donation_unpartitioned;
+
+create index idx_donation_created_at on donation(created_at);
+create index idx_donation_status on donation(status);
+create index idx_donation_stripe_session on donation(stripe_checkout_session_id);
+create index ix_donation_email_trgm on donation using gin (lower(email) gin_trgm_ops);
+create index ix_donation_email_lower on donation (lower(email));
+create index ix_donation_stripe_payment_intent on donation (stripe_payment_intent_id);
+
+create trigger trg_donation_rollup_insert_delete
+  after insert or delete on donation
+  for each row execute function donation_rollup_trigger();
+
+create trigger trg_donation_rollup_update
+  after update on donation
+  for each row
+  when (old.status is distinct from new.status
+     or old.payment_method is distinct from new.payment_method
+     or old.currency is distinct from new.currency
+     or old.amount_cents is distinct from new.amount_cents
+     or old.created_at is distinct from new.created_at)
+  execute function donation_rollup_trigger();
+
+alter table tax_receipt add column donation_created_at timestamptz;
+
+update tax_receipt r
+set donation_created_at = d.created_at
+from donation_unpartitioned d
+where d.id = r.donation_id;
+
+alter table tax_receipt alter column donation_created_at set not null;
+
+alter table tax_receipt
+  add constraint fk_tax_receipt_donation foreign key (donation_id, donation_created_at)
+  references donation(id, created_at) on delete cascade;
+
+drop table donation_unpartitioned;
+
+analyze donation;
@@ -0,0 +1,59 @@
+-- import des dons hors ligne (chèques, espèces, virements) : la référence externe (n° de chèque,
+-- de virement, de bordereau) empêche d'importer deux fois la même ligne.
+alter table donation add column external_ref varchar(100);
+
+create index ix_donation_external_ref on donation (external_ref) where external_ref is not null;
+
+-- cible du COPY, lignes déjà validées ; unlogged (pas de WAL) : rejouable depuis le fichier,
+-- vidée en fin d'import (et par UnfinishedWorkRecovery si l'instance meurt entre-temps)
+create unlogged table donation_import_staging (
+  import_id uuid not null,
+  line_no integer not null,
+  donated_on date not null,
+  amount_cents integer not null,
+  currency varchar(3) not null,
+  payment_method varchar(20) not null,
+  email varchar(320),
+  external_ref varchar(100) not null,
+  staged_at timestamptz not null default now()
+);
+
+create index ix_donation_import_staging_import on donation_import_staging (import_id);
+
+-- L'import insère des centaines de milliers de lignes d'un coup : un appel de donation_rollup_apply
+-- par ligne domine alors le temps d'import. Dans sa transaction, l'import pose
+-- app.donation_rollup_deferred = on et applique lui-même un delta agrégé par clé.
+create or replace function donation_rollup_trigger() returns trigger as $$
+declare
+  old_day date;
+  new_day date;
+begin
+  if tg_op = 'INSERT' then
+    if current_setting('app.donation_rollup_deferred', true) = 'on' then
+      return null;
+    end if;
+    perform donation_rollup_apply((new.created_at at time zone 'UTC')::date, new.status, new.payment_method,
+                                  new.currency, 1, new.amount_cents);
+    return null;
+  end if;
+
+  old_day := (old.created_at at time zone 'UTC')::date;
+
+  if tg_op = 'DELETE' then
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+    return null;
+  end if;
+
+  new_day := (new.created_at at time zone 'UTC')::date;
+
+  if (old_day, old.status, old.payment_method, old.currency)
+       <= (new_day, new.status, new.payment_method, new.currency) then
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+    perform donation_rollup_apply(new_day, new.status, new.payment_method, new.currency, 1, new.amount_cents);
+  else
+    perform donation_rollup_apply(new_day, new.status, new.payment_method, new.currency, 1, new.amount_cents);
+    perform donation_rollup_apply(old_day, old.status, old.payment_method, old.currency, -1, -old.amount_cents);
+  end if;
+  return null;
+end;
+$$ language plpgsql;
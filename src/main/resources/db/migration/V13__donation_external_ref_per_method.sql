@@ -0,0 +1,5 @@
+-- une référence externe n'est unique que pour un moyen de paiement : le chèque n° 1042 et le
+-- virement n° 1042 sont deux dons distincts
+drop index ix_donation_external_ref;
+
+create index ix_donation_method_external_ref on donation (payment_method, external_ref) where external_ref is not null;
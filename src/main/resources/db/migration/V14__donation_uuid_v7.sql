@@ -0,0 +1,13 @@
+-- ids UUIDv7 (RFC 9562) : les 48 premiers bits sont created_at en millisecondes, une recherche par id
+-- en déduit la partition. Postgres 16 n'a pas uuidv7() : v4 aléatoire, horodatage et version 7 posés
+-- par-dessus (les bits de variante sont déjà ceux de la v4). Les dons existants gardent leur id v4.
+create or replace function uuid_v7_at(ts timestamptz) returns uuid
+language sql volatile parallel safe as $$
+  select encode(
+           set_bit(set_bit(
+             overlay(uuid_send(gen_random_uuid())
+                     placing substring(int8send(floor(extract(epoch from ts) * 1000)::bigint) from 3)
+                     from 1 for 6),
+             52, 1), 53, 1),
+           'hex')::uuid
+$$;
@@ -0,0 +1,62 @@
+create table donation_daily_rollup (
+  day date not null,
+  status varchar(20) not null,
+  payment_method varchar(20) not null,
+  currency varchar(3) not null,
+
+  donation_count bigint not null default 0,
+  amount_cents_sum bigint not null default 0,
+
+  updated_at timestamptz not null default now(),
+
+  primary key (day, status, payment_method, currency)
+);
+
+-- applique un delta (+1 / -1) sur la ligne d'agrégat correspondante
+create or replace function donation_rollup_apply(
+  p_day date, p_status varchar, p_method varchar, p_currency varchar,
+  p_count bigint, p_amount bigint
+) returns void as $$
+begin
+  insert into donation_daily_rollup(day, status, payment_method, currency, donation_count, amount_cents_sum, updated_at)
+  values (p_day, p_status, p_method, p_currency, p_count, p_amount, now())
+  on conflict (day, status, payment_method, currency) do update
+    set donation_count   = donation_daily_rollup.donation_count + excluded.donation_count,
+        amount_cents_sum = donation_daily_rollup.amount_cents_sum + excluded.amount_cents_sum,
+        updated_at       = now();
+end;
+$$ language plpgsql;
+
+create or replace function donation_rollup_trigger() returns trigger as $$
+begin
+  if tg_op in ('UPDATE', 'DELETE') then
+    perform donation_rollup_apply((old.created_at at time zone 'UTC')::date, old.status, old.payment_method,
+                                  old.currency, -1, -old.amount_cents);
+  end if;
+  if tg_op in ('INSERT', 'UPDATE') then
+    perform donation_rollup_apply((new.created_at at time zone 'UTC')::date, new.status, new.payment_method,
+                                  new.currency, 1, new.amount_cents);
+  end if;
+  return null;
+end;
+$$ language plpgsql;
+
+create trigger trg_donation_rollup_insert_delete
+  after insert or delete on donation
+  for each row execute function donation_rollup_trigger();
+
+-- Hibernate met à jour toutes les colonnes : on ne touche l'agrégat que si une clé change vraiment
+create trigger trg_donation_rollup_update
+  after update on donation
+  for each row
+  when (old.status is distinct from new.status
+     or old.payment_method is distinct from new.payment_method
+     or old.currency is distinct from new.currency
+     or old.amount_cents is distinct from new.amount_cents
+     or old.created_at is distinct from new.created_at)
+  execute function donation_rollup_trigger();
+
+insert into donation_daily_rollup(day, status, payment_method, currency, donation_count, amount_cents_sum)
+select (created_at at time zone 'UTC')::date, status, payment_method, currency, count(*), sum(amount_cents)
+from donation
+group by 1, 2, 3, 4;
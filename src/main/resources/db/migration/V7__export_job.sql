@@ -0,0 +1,26 @@
+create table export_job (
+  id uuid primary key,
+
+  kind varchar(20) not null,
+  format varchar(10) not null,
+  status varchar(20) not null,
+
+  -- filtres (mêmes sémantiques que les listes admin)
+  filter_from date null,
+  filter_to date null,
+  filter_status varchar(20) null,
+
+  file_path text null,
+  row_count bigint null,
+  bytes bigint null,
+  duration_ms bigint null,
+  error text null,
+
+  created_at timestamptz not null default now(),
+  started_at timestamptz null,
+  finished_at timestamptz null,
+  expires_at timestamptz null
+);
+
+create index ix_export_job_status on export_job(status);
+create index ix_export_job_expires_at on export_job(expires_at);
@@ -0,0 +1,12 @@
+-- recherche donateur dans les listes admin (paramètre q)
+create extension if not exists pg_trgm;
+
+-- sous-chaînes (ILIKE '%...%') : GIN trigram sur les expressions interrogées
+create index ix_donation_email_trgm on donation using gin (lower(email) gin_trgm_ops);
+create index ix_tax_receipt_email_trgm on tax_receipt using gin (lower(email) gin_trgm_ops);
+create index ix_tax_receipt_donor_name_trgm on tax_receipt using gin (lower(donor_full_name) gin_trgm_ops);
+
+-- correspondances exactes : B-tree
+create index ix_donation_email_lower on donation (lower(email));
+create index ix_tax_receipt_email_lower on tax_receipt (lower(email));
+create index ix_donation_stripe_payment_intent on donation (stripe_payment_intent_id);
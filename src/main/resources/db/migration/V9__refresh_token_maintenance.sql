@@ -0,0 +1,10 @@
+-- purge par lots : supprimer un token ne doit pas échouer s'il est référencé par replaced_by
+alter table refresh_token drop constraint refresh_token_replaced_by_fkey;
+alter table refresh_token
+  add constraint refresh_token_replaced_by_fkey
+  foreign key (replaced_by) references refresh_token(id) on delete set null;
+
+-- évite un seq scan par ligne supprimée (on delete set null)
+create index ix_refresh_token_replaced_by on refresh_token(replaced_by) where replaced_by is not null;
+
+create index ix_refresh_token_revoked_at on refresh_token(revoked_at) where revoked_at is not null;
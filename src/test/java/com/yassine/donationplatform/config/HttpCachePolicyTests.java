@@ -0,0 +1,125 @@
+package com.yassine.donationplatform.config;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.repository.DonationRepository;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Cache-Control de {@link HttpCachePolicy} (304 compris) et négociation gzip de /api/settings.
+ */
+@SpringBootTest(properties = "server.compression.min-response-size=0B") // réglages par défaut : < 2KB
+class HttpCachePolicyTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private HttpCacheProps props;
+
+    @Autowired
+    private DonationRepository donations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private MockMvc mvc;
+    private UUID donationId;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (donationId != null) {
+            jdbc.update("delete from donation where id = ?", donationId);
+        }
+    }
+
+    @Test
+    void settingsHonoursAcceptEncodingQualities() throws Exception {
+        assertThat(contentEncoding("gzip")).isEqualTo("gzip");
+        assertThat(contentEncoding("br;q=1.0, gzip;q=0.8")).isEqualTo("gzip");
+        assertThat(contentEncoding("*")).isEqualTo("gzip");
+        assertThat(contentEncoding("gzip;q=0, deflate")).isNull();
+        assertThat(contentEncoding("GZIP; Q=0.000")).isNull();
+        assertThat(contentEncoding("*;q=0.5, gzip;q=0")).isNull();
+        assertThat(contentEncoding("identity")).isNull();
+        assertThat(contentEncoding(null)).isNull();
+    }
+
+    @Test
+    void settingsNotModifiedKeepsPolicyHeaders() throws Exception {
+        MockHttpServletResponse first = perform("/api/settings", "gzip", null);
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(props.cacheControl("settings"));
+        assertThat(first.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+
+        MockHttpServletResponse second = perform("/api/settings", "gzip", first.getHeader(HttpHeaders.ETAG));
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+        assertThat(second.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(props.cacheControl("settings"));
+
+        // ETag de la variante gzip : ne valide pas la variante identité
+        assertThat(perform("/api/settings", null, first.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void donationNotModifiedUntilStatusChanges() throws Exception {
+        donationId = donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(2000)
+                .currency("EUR")
+                .status(DonationStatus.PENDING)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("cache@test.local")
+                .build()).getId();
+        String path = "/api/donations/" + donationId;
+
+        MockHttpServletResponse first = perform(path, null, null);
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(props.cacheControl("donation"));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse polled = perform(path, null, etag);
+        assertThat(polled.getStatus()).isEqualTo(304);
+        assertThat(polled.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(props.cacheControl("donation"));
+
+        jdbc.update("update donation set status = 'PAID', updated_at = now() where id = ?", donationId);
+        assertThat(perform(path, null, etag).getStatus()).isEqualTo(200);
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        return perform("/api/settings", acceptEncoding, null).getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private MockHttpServletResponse perform(String path, String acceptEncoding, String ifNoneMatch) throws Exception {
+        var request = get(path).servletPath(path);
+        if (acceptEncoding != null) request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return mvc.perform(request).andReturn().getResponse();
+    }
+}
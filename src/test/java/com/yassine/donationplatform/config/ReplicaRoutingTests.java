@@ -0,0 +1,175 @@
+package com.yassine.donationplatform.config;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.repository.DonationRepository;
+import com.yassine.donationplatform.service.donation.DonationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Routage vers le réplica de streaming local (port 5434 par défaut, TEST_REPLICA_URL sinon) : ignoré
+ * s'il est injoignable. Le retard est provoqué en suspendant le rejeu du WAL (pg_wal_replay_pause).
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=${TEST_REPLICA_URL:jdbc:postgresql://localhost:5434/donations_ci}",
+        "app.datasource.replica.max-lag=2s",
+        "app.datasource.replica.lag-check-interval-ms=600000" // checkLag() appelé par le test
+})
+class ReplicaRoutingTests {
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private DonationService donationService;
+
+    @Autowired
+    private DonationRepository donations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private UUID donationId;
+    private boolean replayPaused;
+
+    @BeforeEach
+    void replicaAvailable() {
+        routing.checkLag();
+        assumeTrue(replicaUsable(), "no usable replica at " + replicaUrl);
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        if (replayPaused) {
+            onReplica("select pg_wal_replay_resume()");
+        }
+        if (donationId != null) {
+            jdbc.update("delete from donation where id = ?", donationId);
+        }
+        for (int i = 0; i < 50; i++) { // réplica rattrapé avant le test suivant
+            routing.checkLag();
+            if (replicaUsable()) return;
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    void readOnlyReplicaReadsGoToReplica() {
+        assertThat(ReplicaRoutingDataSource.readFromReplica(this::readOnlyInRecovery)).isTrue();
+        assertThat(readOnlyInRecovery()).isFalse(); // hors appel @ReplicaRead : primaire
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        pauseReplay();
+        donationId = saveDonation(DonationStatus.PENDING).getId(); // WAL reçu mais non rejoué
+        Thread.sleep(2500);
+        routing.checkLag();
+        assertThat(replicaUsable()).isFalse();
+
+        double fallbacks = registry.counter("db.replica.fallback").count();
+        assertThat(ReplicaRoutingDataSource.readFromReplica(this::readOnlyInRecovery)).isFalse();
+        assertThat(registry.counter("db.replica.fallback").count()).isEqualTo(fallbacks + 1);
+    }
+
+    @Test
+    void statusNeverGoesBackWhileReplicaCatchesUp() throws Exception {
+        donationId = saveDonation(DonationStatus.PENDING).getId();
+        awaitOnReplica(donationId);
+
+        pauseReplay();
+        jdbc.update("update donation set status = 'PAID', updated_at = now() where id = ?", donationId);
+        routing.checkLag();
+        assumeTrue(replicaUsable(), "replica already past max-lag");
+
+        // le réplica, utilisable (sous max-lag), montre encore PENDING ; le primaire a déjà dit PAID
+        Donation onReplica = ReplicaRoutingDataSource.readFromReplica(() -> donationService.findById(donationId)).orElseThrow();
+        assertThat(onReplica.getStatus()).isEqualTo(DonationStatus.PENDING);
+        assertThat(donationService.findByIdPreferReplica(donationId).orElseThrow().getStatus())
+                .isEqualTo(DonationStatus.PAID);
+    }
+
+    private boolean readOnlyInRecovery() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);
+        return Boolean.TRUE.equals(tx.execute(s -> jdbc.queryForObject("select pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private boolean replicaUsable() {
+        return registry.get("db.replica.usable").gauge().value() == 1;
+    }
+
+    private void onReplica(String sql) throws SQLException {
+        try (Connection c = DriverManager.getConnection(replicaUrl, username, password);
+             PreparedStatement st = c.prepareStatement(sql)) {
+            st.execute();
+        }
+    }
+
+    private void pauseReplay() throws SQLException {
+        onReplica("select pg_wal_replay_pause()");
+        replayPaused = true;
+    }
+
+    private void awaitOnReplica(UUID id) throws Exception {
+        try (Connection c = DriverManager.getConnection(replicaUrl, username, password);
+             PreparedStatement st = c.prepareStatement("select 1 from donation where id = ?")) {
+            st.setObject(1, id);
+            for (int i = 0; i < 100; i++) {
+                try (ResultSet rs = st.executeQuery()) {
+                    if (rs.next()) return;
+                }
+                Thread.sleep(50);
+            }
+        }
+        throw new AssertionError("donation " + id + " not replicated");
+    }
+
+    private Donation saveDonation(DonationStatus status) {
+        return donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(2000)
+                .currency("EUR")
+                .status(status)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("replica@test.local")
+                .build());
+    }
+}
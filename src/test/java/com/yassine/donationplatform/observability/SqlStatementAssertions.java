@@ -0,0 +1,67 @@
+package com.yassine.donationplatform.observability;
+
+import java.util.List;
+
+/**
+ * Helper pour tests d'intégration : compte les requêtes SQL (et leurs lignes) émises pendant un bloc
+ * exécuté dans le thread courant (appel de service, MockMvc...).
+ *
+ * <pre>
+ * SqlStatementAssertions.assertStatementCount(2, () -&gt; mockMvc.perform(post("/api/webhooks/stripe")...));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {}
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    public static SqlStatementCounter.Capture capture(ThrowingRunnable block) throws Exception {
+        SqlStatementCounter.Capture capture = SqlStatementCounter.begin();
+        try {
+            block.run();
+            return capture;
+        } finally {
+            SqlStatementCounter.end();
+        }
+    }
+
+    /** Comme {@link #capture}, en gardant le SQL complet de chaque requête (EXPLAIN dans les tests). */
+    public static List<String> captureSql(ThrowingRunnable block) throws Exception {
+        SqlStatementCounter.Capture capture = SqlStatementCounter.beginWithSql();
+        try {
+            block.run();
+            return capture.statements();
+        } finally {
+            SqlStatementCounter.end();
+        }
+    }
+
+    public static SqlStatementCounter.Capture assertStatementCount(int expected, ThrowingRunnable block) throws Exception {
+        SqlStatementCounter.Capture capture = capture(block);
+        if (capture.total() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but got " + capture.total()
+                    + describe(capture));
+        }
+        return capture;
+    }
+
+    public static SqlStatementCounter.Capture assertStatementCountAtMost(int max, ThrowingRunnable block) throws Exception {
+        SqlStatementCounter.Capture capture = capture(block);
+        if (capture.total() > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but got " + capture.total()
+                    + describe(capture));
+        }
+        return capture;
+    }
+
+    private static String describe(SqlStatementCounter.Capture capture) {
+        StringBuilder sb = new StringBuilder(" (" + capture.rows() + " rows):");
+        capture.shapes().forEach((shape, n) -> sb.append("\n  ").append(n).append("x ")
+                .append(capture.shapeRows().get(shape)).append(" rows ").append(shape));
+        return sb.toString();
+    }
+}
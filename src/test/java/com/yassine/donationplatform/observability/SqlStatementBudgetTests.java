@@ -0,0 +1,278 @@
+package com.yassine.donationplatform.observability;
+
+import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.repository.DonationRepository;
+import com.yassine.donationplatform.security.admin.AdminProps;
+import com.yassine.donationplatform.service.auth.JwtService;
+import com.yassine.donationplatform.service.donation.DonationAdminService;
+import com.yassine.donationplatform.service.donation.DonationImportService;
+import com.yassine.donationplatform.service.receipt.TaxReceiptEmailService;
+import com.yassine.donationplatform.service.stripe.StripeCheckoutService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre exact de requêtes SQL (Hibernate + JdbcTemplate) des flux chauds, égal à leur budget
+ * (app.sql-budget.endpoints) : une requête de plus fait échouer le build au lieu d'un warn en production.
+ * Chaîne Spring Security incluse ; côté admin, principal déjà en cache (régime établi).
+ */
+@SpringBootTest(properties = "app.receipt.storage-dir=${java.io.tmpdir}/sql-budget-tests")
+class SqlStatementBudgetTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlBudgetProps budgets;
+
+    @Autowired
+    private DonationRepository donations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private DonationImportService importService;
+
+    @Autowired
+    private DonationAdminService donationAdminService;
+
+    @Autowired
+    private AdminProps adminProps;
+
+    @MockitoBean
+    private StripeCheckoutService stripeCheckoutService;
+
+    @MockitoBean
+    private TaxReceiptEmailService receiptEmailService;
+
+    @Value("${app.stripe.webhook-secret}")
+    private String webhookSecret;
+
+    private MockMvc mvc;
+    private final List<UUID> createdDonations = new ArrayList<>();
+    private UUID adminId; // créé par le test, sinon l'admin de la base de CI
+
+    @BeforeEach
+    void setUp() {
+        // pas de SqlBudgetFilter ici : sa capture remplacerait celle du test
+        mvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (UUID id : createdDonations) {
+            jdbc.update("delete from tax_receipt where donation_id = ?", id);
+            jdbc.update("delete from donation where id = ?", id);
+        }
+        if (adminId != null) {
+            jdbc.update("delete from users where id = ?", adminId);
+        }
+    }
+
+    @Test
+    void checkoutSession() throws Exception {
+        when(stripeCheckoutService.createCheckoutSession(any())).thenAnswer(invocation -> {
+            Donation donation = invocation.getArgument(0);
+            createdDonations.add(donation.getId());
+            Session session = new Session();
+            session.setId("cs_test_" + donation.getId());
+            session.setUrl("https://checkout.stripe.test/" + donation.getId());
+            return session;
+        });
+
+        SqlStatementAssertions.assertStatementCount(budget("POST /api/donations/checkout-session"), () ->
+                mvc.perform(post("/api/donations/checkout-session")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        {"amount": 20, "email": "budget@test.local", "paymentMethod": "CARD"}"""))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void stripeWebhookCheckoutCompleted() throws Exception {
+        Donation donation = saveDonation(DonationStatus.PENDING);
+        long now = System.currentTimeMillis() / 1000;
+        String payload = """
+                {"id": "evt_budget", "object": "event", "api_version": "2024-06-20", "created": %d,
+                 "type": "checkout.session.completed",
+                 "data": {"object": {"id": "cs_budget", "object": "checkout.session", "payment_status": "paid",
+                                     "payment_intent": "pi_budget", "metadata": {"donationId": "%s"}}}}"""
+                .formatted(now, donation.getId());
+        String signature = "t=" + now + ",v1=" + Webhook.Util.computeHmacSha256(webhookSecret, now + "." + payload);
+
+        SqlStatementAssertions.assertStatementCount(budget("POST /api/webhooks/stripe"), () ->
+                mvc.perform(post("/api/webhooks/stripe")
+                                .header("Stripe-Signature", signature)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(payload))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void receiptRequest() throws Exception {
+        Donation donation = saveDonation(DonationStatus.PAID);
+
+        SqlStatementAssertions.assertStatementCount(budget("POST /api/receipts/request"), () ->
+                requestReceipt(donation));
+    }
+
+    @Test
+    void adminDonationList() throws Exception {
+        saveDonation(DonationStatus.PAID);
+        String token = adminToken();
+        adminGet("/api/admin/donations", token); // met le principal en cache
+
+        SqlStatementAssertions.assertStatementCount(budget("GET /api/admin/donations"), () ->
+                adminGet("/api/admin/donations", token));
+    }
+
+    @Test
+    void serverTimingDbCoversJdbcTemplateAndStreamedPages() throws Exception {
+        Donation donation = saveDonation(DonationStatus.PENDING);
+        MockMvc timed = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(new ServerTimingFilter(true, 1.0, 0.0)) // API publique : toujours échantillonnée
+                .build();
+
+        // transition en un UPDATE JdbcTemplate, hors repository Spring Data
+        long now = System.currentTimeMillis() / 1000;
+        String payload = """
+                {"id": "evt_timing", "object": "event", "api_version": "2024-06-20", "created": %d,
+                 "type": "checkout.session.expired",
+                 "data": {"object": {"id": "cs_timing", "object": "checkout.session", "metadata": {"donationId": "%s"}}}}"""
+                .formatted(now, donation.getId());
+        String signature = "t=" + now + ",v1=" + Webhook.Util.computeHmacSha256(webhookSecret, now + "." + payload);
+        String header = timed.perform(post("/api/webhooks/stripe").servletPath("/api/webhooks/stripe")
+                        .header("Stripe-Signature", signature)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+        assertThat(header).contains("db;dur=").contains("desc=\"1\"");
+
+        // count + page lue en getResultStream : l'itération compte dans le temps db
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            donationAdminService.writePage(null, null, null, null, 0, 20, OutputStream.nullOutputStream());
+        } finally {
+            RequestTimings.end();
+        }
+        assertThat(timings.entries().get(RequestTimings.DB).count()).isEqualTo(2);
+    }
+
+    @Test
+    void importCountsCopiedRows() throws Exception {
+        String ref = "BUDGET-" + UUID.randomUUID();
+        String csv = "date;amount;currency;method;email;reference\n"
+                + "2026-01-10;12,50;EUR;CASH;budget@test.local;" + ref + "-1\n"
+                + "2026-01-11;30;EUR;CHEQUE;budget@test.local;" + ref + "-2\n";
+
+        try {
+            SqlStatementCounter.Capture capture = SqlStatementAssertions.capture(() ->
+                    importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+            // COPY via ConnectionCallback + unwrap(PGConnection) : une requête, ses lignes copiées
+            assertThat(capture.shapeRows()).anySatisfy((shape, rows) -> {
+                assertThat(shape).startsWith("copy donation_import_staging");
+                assertThat(rows).isEqualTo(2);
+            });
+            assertThat(capture.shapes().keySet()).noneMatch(shape -> shape.startsWith("jdbc "));
+        } finally {
+            jdbc.update("delete from donation where external_ref like ?", ref + "-%");
+        }
+    }
+
+    @Test
+    void adminReceiptList() throws Exception {
+        requestReceipt(saveDonation(DonationStatus.PAID)); // table vide : pas de requête de page
+        String token = adminToken();
+        adminGet("/api/admin/receipts", token);
+
+        SqlStatementAssertions.assertStatementCount(budget("GET /api/admin/receipts"), () ->
+                adminGet("/api/admin/receipts", token));
+    }
+
+    private int budget(String endpoint) {
+        return budgets.budgetFor(endpoint);
+    }
+
+    private void requestReceipt(Donation donation) throws Exception {
+        mvc.perform(post("/api/receipts/request")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"donationId": "%s", "email": "budget@test.local",
+                                 "fullName": "Jeanne Budget", "address": "1 rue du Test, 75000 Paris"}"""
+                                .formatted(donation.getId())))
+                .andExpect(status().isOk());
+    }
+
+    private void adminGet(String path, String token) throws Exception {
+        // JwtAuthFilter filtre sur getServletPath(), vide par défaut sous MockMvc
+        mvc.perform(get(path).servletPath(path).param("page", "0").param("size", "20")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String adminToken() {
+        List<UUID> existing = jdbc.queryForList("select id from users where lower(email) = ?", UUID.class,
+                adminProps.email());
+        UUID id;
+        if (existing.isEmpty()) {
+            adminId = id = UUID.randomUUID();
+            jdbc.update("insert into users (id, email, password_hash) values (?, ?, 'unused')", id, adminProps.email());
+        } else {
+            id = existing.getFirst();
+        }
+        return jwtService.generateToken(id, adminProps.email(), 300);
+    }
+
+    private Donation saveDonation(DonationStatus status) {
+        Donation donation = donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(2000)
+                .currency("EUR")
+                .status(status)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("budget@test.local")
+                .build());
+        createdDonations.add(donation.getId());
+        return donation;
+    }
+}
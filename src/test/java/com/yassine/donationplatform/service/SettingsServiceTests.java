@@ -0,0 +1,71 @@
+package com.yassine.donationplatform.service;
+
+import com.yassine.donationplatform.dto.request.UpdateSettingsRequest;
+import com.yassine.donationplatform.entity.settings.AppSettings;
+import com.yassine.donationplatform.repository.AppSettingsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Snapshot public des réglages : un rechargement qui a lu l'ancienne ligne ne doit jamais écraser
+ * le snapshot installé par un commit concurrent.
+ */
+@SpringBootTest
+class SettingsServiceTests {
+
+    @Autowired
+    private SettingsService settings;
+
+    @MockitoBean
+    private AppSettingsRepository repo;
+
+    @Test
+    void reloadStartedBeforeCommitDoesNotOverwriteNewerSnapshot() throws Exception {
+        CountDownLatch readerInRepo = new CountDownLatch(1);
+        CountDownLatch releaseReader = new CountDownLatch(1);
+        when(repo.findBySettingsKey(anyString())).thenAnswer(invocation -> {
+            AppSettings oldRow = AppSettings.builder() // instance par appel : l'update modifie la sienne
+                    .settingsKey("PUBLIC_UI")
+                    .settingsJson("{\"title\":\"Old title\",\"suggestedAmounts\":[10]}")
+                    .build();
+            if (Thread.currentThread().getName().equals("settings-reader")) {
+                readerInRepo.countDown();
+                releaseReader.await(5, TimeUnit.SECONDS); // ligne déjà lue, commit concurrent pendant ce temps
+            }
+            return Optional.of(oldRow);
+        });
+        when(repo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        settings.evictPublicUiSnapshot();
+        Thread reader = new Thread(settings::publicUiSnapshot, "settings-reader");
+        reader.start();
+        assertThat(readerInRepo.await(5, TimeUnit.SECONDS)).isTrue();
+
+        UpdateSettingsRequest req = new UpdateSettingsRequest();
+        req.setTitle("New title");
+        req.setSuggestedAmounts(List.of(20, 50));
+        CompletableFuture<Void> update = CompletableFuture.runAsync(() -> settings.updatePublicUi(req));
+
+        Thread.sleep(200); // laisse le commit atteindre l'installation du snapshot
+        releaseReader.countDown();
+        reader.join(5000);
+        update.get(5, TimeUnit.SECONDS);
+
+        String body = new String(settings.publicUiSnapshot().body(), StandardCharsets.UTF_8);
+        assertThat(body).contains("New title");
+    }
+}
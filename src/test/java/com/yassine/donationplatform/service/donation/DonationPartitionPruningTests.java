@@ -0,0 +1,250 @@
+package com.yassine.donationplatform.service.donation;
+
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.observability.SqlStatementAssertions;
+import com.yassine.donationplatform.repository.DonationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans des requêtes admin sur donation partitionnée (V11) : une liste bornée à un mois
+ * ne doit lire que la partition de ce mois, la recherche libre doit passer par les index trigram.
+ */
+@SpringBootTest
+@Transactional
+class DonationPartitionPruningTests {
+
+    @Autowired
+    private DonationAdminService adminService;
+
+    @Autowired
+    private DonationRepository donations;
+
+    @Autowired
+    private DonationPartitionMaintenance partitions;
+
+    @Autowired
+    private DonationService donationService;
+
+    @Autowired
+    private DonationStateMachine stateMachine;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void adminListOverOneMonthOnlyScansThatMonthsPartition() throws Exception {
+        // created_at = maintenant (PrePersist) : au moins une ligne, sinon la page n'est pas lue
+        donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(1000)
+                .currency("EUR")
+                .status(DonationStatus.PAID)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("pruning@test.local")
+                .build());
+
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+
+        List<String> sql = SqlStatementAssertions.captureSql(() ->
+                adminService.writePage(from, to, null, null, 0, 20, OutputStream.nullOutputStream()));
+
+        List<String> donationQueries = sql.stream().filter(s -> s.contains("from donation")).toList();
+        assertThat(donationQueries).hasSize(2); // count + page
+
+        OffsetDateTime lower = from.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime upper = to.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        for (String query : donationQueries) {
+            assertThat(scannedRelations(query, lower, upper))
+                    .as(query)
+                    .containsExactly(partitionName(month));
+        }
+    }
+
+    @Test
+    void freeTextSearchUsesTrigramIndexOnEachBranch() throws Exception {
+        donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(1000)
+                .currency("EUR")
+                .status(DonationStatus.PAID)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("plan-search@test.local")
+                .build());
+
+        List<String> sql = SqlStatementAssertions.captureSql(() ->
+                adminService.writePage(null, null, null, "plan-search", 0, 20, OutputStream.nullOutputStream()));
+
+        List<String> donationQueries = sql.stream().filter(s -> s.contains("from donation")).toList();
+        assertThat(donationQueries).hasSize(2); // count + page
+
+        // tables de test quasi vides : sans cela le planner préfère un seq scan partout
+        jdbc.execute("set local enable_seqscan = off");
+        String pattern = "%plan-search%";
+        for (String query : donationQueries) {
+            JsonNode plan = explain(query, ps -> {
+                ps.setString(1, pattern);
+                ps.setString(2, pattern);
+                int params = ps.getParameterMetaData().getParameterCount();
+                if (params == 3) ps.setInt(3, 20);
+                if (params == 4) {
+                    ps.setInt(3, 0);
+                    ps.setInt(4, 20);
+                }
+            });
+
+            List<String> indexConds = new ArrayList<>();
+            List<String> filters = new ArrayList<>();
+            collectConditions(plan, indexConds, filters);
+
+            // chaque LIKE est une condition d'index (bitmap sur le GIN trigram), jamais un filtre ligne à ligne
+            assertThat(indexConds).as(query)
+                    .anyMatch(c -> c.contains("lower((email)::text) ~~"))
+                    .anyMatch(c -> c.contains("lower((donor_full_name)::text) ~~"));
+            assertThat(filters).as(query).noneMatch(c -> c.contains("~~"));
+        }
+    }
+
+    @Test
+    void findByIdOnlyScansItsPartition() throws Exception {
+        Donation donation = donationService.createDonation(1000, "EUR", PaymentMethod.CARD, "by-id@test.local");
+        UUID id = donation.getId();
+        donations.flush();
+
+        List<String> sql = SqlStatementAssertions.captureSql(() -> donationService.findById(id));
+        assertThat(sql).hasSize(1);
+
+        // paramètres : id puis bornes de created_at déduites de l'id v7
+        OffsetDateTime createdAt = donation.getCreatedAt().atOffset(ZoneOffset.UTC);
+        JsonNode plan = explain(sql.getFirst(), ps -> {
+            ps.setObject(1, id);
+            ps.setObject(2, createdAt);
+            ps.setObject(3, createdAt.plusNanos(1_000_000));
+        });
+        assertThat(relations(plan)).as(sql.getFirst()).containsExactly(partitionName(YearMonth.from(createdAt)));
+    }
+
+    @Test
+    void transitionUpdateOnlyScansItsPartition() throws Exception {
+        Donation donation = donationService.createDonation(1000, "EUR", PaymentMethod.CARD, "transition@test.local");
+        UUID id = donation.getId();
+        donations.flush();
+
+        List<String> sql = SqlStatementAssertions.captureSql(() -> stateMachine.markPending(id, "cs_pruning"));
+        String update = sql.stream().filter(s -> s.contains("update donation")).findFirst().orElseThrow();
+
+        OffsetDateTime createdAt = donation.getCreatedAt().atOffset(ZoneOffset.UTC);
+        JsonNode plan = explain(update, ps -> {
+            ps.setString(1, DonationStatus.PENDING.name());
+            ps.setString(2, "cs_pruning");
+            ps.setString(3, null);
+            ps.setObject(4, id);
+            ps.setObject(5, createdAt);
+            ps.setObject(6, createdAt.plusNanos(1_000_000));
+            ps.setString(7, DonationStatus.CREATED.name());
+            ps.setObject(8, id);
+            ps.setObject(9, createdAt);
+            ps.setObject(10, createdAt.plusNanos(1_000_000));
+        });
+        // "donation" : table du ModifyTable ; sous-requête FOR UPDATE et cible de l'UPDATE sur une seule partition
+        assertThat(relations(plan)).as(update).containsExactlyInAnyOrder("donation", partitionName(YearMonth.from(createdAt)));
+    }
+
+    @Test
+    void maintenanceCreatesPartitionsAhead() {
+        List<String> created = partitions.ensureFuturePartitions();
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        assertThat(created).contains(partitionName(current), partitionName(current.plusMonths(3)));
+        assertThat(jdbc.queryForObject("select to_regclass(?) is not null", Boolean.class,
+                partitionName(current.plusMonths(3)))).isTrue();
+    }
+
+    /** Tables lues par le plan de la requête, paramètres : bornes de created_at puis offset / limit. */
+    private Set<String> scannedRelations(String query, OffsetDateTime lower, OffsetDateTime upper) {
+        JsonNode plan = explain(query, ps -> {
+            int params = ps.getParameterMetaData().getParameterCount();
+            ps.setObject(1, lower);
+            ps.setObject(2, upper);
+            if (params == 3) ps.setInt(3, 20);
+            if (params == 4) {
+                ps.setInt(3, 0);
+                ps.setInt(4, 20);
+            }
+        });
+
+        return relations(plan);
+    }
+
+    private static Set<String> relations(JsonNode plan) {
+        Set<String> relations = new TreeSet<>();
+        collectRelations(plan, relations);
+        return relations;
+    }
+
+    private JsonNode explain(String query, PreparedStatementSetter params) {
+        String plan = jdbc.execute((java.sql.Connection c) -> {
+            try (var ps = c.prepareStatement("explain (format json) " + query)) {
+                params.setValues(ps);
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+        return jsonMapper.readTree(plan);
+    }
+
+    private static void collectRelations(JsonNode node, Set<String> out) {
+        if (node.isObject() && node.has("Relation Name")) {
+            out.add(node.get("Relation Name").asString());
+        }
+        for (JsonNode child : node) {
+            collectRelations(child, out);
+        }
+    }
+
+    private static void collectConditions(JsonNode node, List<String> indexConds, List<String> filters) {
+        if (node.isObject()) {
+            if (node.has("Index Cond")) indexConds.add(node.get("Index Cond").asString());
+            if (node.has("Filter")) filters.add(node.get("Filter").asString());
+        }
+        for (JsonNode child : node) {
+            collectConditions(child, indexConds, filters);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "donation_p" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+}
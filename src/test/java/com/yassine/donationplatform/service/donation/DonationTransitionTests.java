@@ -0,0 +1,160 @@
+package com.yassine.donationplatform.service.donation;
+
+import com.stripe.net.Webhook;
+import com.yassine.donationplatform.dto.DonationStatus;
+import com.yassine.donationplatform.dto.PaymentMethod;
+import com.yassine.donationplatform.dto.PaymentProvider;
+import com.yassine.donationplatform.entity.donation.Donation;
+import com.yassine.donationplatform.repository.DonationRepository;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Transitions gardées de bout en bout, via le webhook Stripe signé : un événement en retard ou rejoué
+ * répond 200 (Stripe ne renvoie pas) sans toucher au statut.
+ */
+@SpringBootTest
+class DonationTransitionTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DonationRepository donations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${app.stripe.webhook-secret}")
+    private String webhookSecret;
+
+    private MockMvc mvc;
+    private final List<UUID> createdDonations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (UUID id : createdDonations) {
+            jdbc.update("delete from donation where id = ?", id);
+        }
+    }
+
+    @Test
+    void lateFailedAfterPaidIsRejected() throws Exception {
+        Donation donation = saveDonation(DonationStatus.PENDING, null);
+
+        sendWebhook(checkoutCompleted(donation.getId(), "paid"));
+        sendWebhook(checkoutCompleted(donation.getId(), "unpaid"));
+
+        assertThat(statusOf(donation.getId())).isEqualTo(DonationStatus.PAID);
+    }
+
+    @Test
+    void replayedWebhookIsNoOp() throws Exception {
+        Donation donation = saveDonation(DonationStatus.PENDING, null);
+        String payload = checkoutCompleted(donation.getId(), "paid");
+
+        sendWebhook(payload);
+        Map<String, Object> afterFirst = row(donation.getId());
+        sendWebhook(payload);
+
+        assertThat(afterFirst.get("status")).isEqualTo(DonationStatus.PAID.name());
+        assertThat(row(donation.getId())).isEqualTo(afterFirst); // updated_at compris
+    }
+
+    @Test
+    void refundAppliesOnlyFromPaid() throws Exception {
+        Donation pending = saveDonation(DonationStatus.PENDING, "pi_refund_pending_" + UUID.randomUUID());
+        Donation paid = saveDonation(DonationStatus.PAID, "pi_refund_paid_" + UUID.randomUUID());
+        Donation failed = saveDonation(DonationStatus.FAILED, "pi_refund_failed_" + UUID.randomUUID());
+
+        for (Donation d : List.of(pending, paid, failed)) {
+            sendWebhook(chargeRefunded(d.getStripePaymentIntentId()));
+        }
+
+        assertThat(statusOf(pending.getId())).isEqualTo(DonationStatus.PENDING);
+        assertThat(statusOf(paid.getId())).isEqualTo(DonationStatus.REFUNDED);
+        assertThat(statusOf(failed.getId())).isEqualTo(DonationStatus.FAILED);
+    }
+
+    private void sendWebhook(String payload) throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        String signature = "t=" + now + ",v1=" + Webhook.Util.computeHmacSha256(webhookSecret, now + "." + payload);
+        mvc.perform(post("/api/webhooks/stripe")
+                        .header("Stripe-Signature", signature)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk());
+    }
+
+    private static String checkoutCompleted(UUID donationId, String paymentStatus) {
+        return """
+                {"id": "evt_%s", "object": "event", "api_version": "2024-06-20", "created": %d,
+                 "type": "checkout.session.completed",
+                 "data": {"object": {"id": "cs_%s", "object": "checkout.session", "payment_status": "%s",
+                                     "payment_intent": "pi_%s", "metadata": {"donationId": "%s"}}}}"""
+                .formatted(UUID.randomUUID(), System.currentTimeMillis() / 1000, donationId, paymentStatus,
+                        donationId, donationId);
+    }
+
+    private static String chargeRefunded(String paymentIntentId) {
+        return """
+                {"id": "evt_%s", "object": "event", "api_version": "2024-06-20", "created": %d,
+                 "type": "charge.refunded",
+                 "data": {"object": {"id": "ch_%s", "object": "charge", "refunded": true,
+                                     "payment_intent": "%s"}}}"""
+                .formatted(UUID.randomUUID(), System.currentTimeMillis() / 1000, UUID.randomUUID(), paymentIntentId);
+    }
+
+    private DonationStatus statusOf(UUID id) {
+        return DonationStatus.valueOf(jdbc.queryForObject("select status from donation where id = ?", String.class, id));
+    }
+
+    private Map<String, Object> row(UUID id) {
+        Map<String, Object> row = jdbc.queryForMap(
+                "select status, stripe_payment_intent_id, updated_at from donation where id = ?", id);
+        row.computeIfPresent("updated_at", (k, v) -> ((Timestamp) v).toInstant());
+        return row;
+    }
+
+    private Donation saveDonation(DonationStatus status, String paymentIntentId) {
+        Donation donation = donations.saveAndFlush(Donation.builder()
+                .id(UUID.randomUUID())
+                .amountCents(2000)
+                .currency("EUR")
+                .status(status)
+                .provider(PaymentProvider.STRIPE)
+                .paymentMethod(PaymentMethod.CARD)
+                .email("transition@test.local")
+                .stripePaymentIntentId(paymentIntentId)
+                .build());
+        createdDonations.add(donation.getId());
+        return donation;
+    }
+}